@@ -54,6 +54,19 @@ public class Attack {
             0x0001000042304105L, 0x0010008830412a00L, 0x2520081090008908L, 0x40102000a0a60140L,
     };
 
+    /**
+     * The piece values used by the Static Exchange Evaluation, indexed by {@link PieceType} value.
+     */
+    private static final int[] SEE_PIECE_VALUES = {
+            PieceType.NO_PIECE.materialScore,
+            PieceType.PAWN.materialScore,
+            PieceType.KNIGHT.materialScore,
+            PieceType.BISHOP.materialScore,
+            PieceType.ROOK.materialScore,
+            PieceType.QUEEN.materialScore,
+            PieceType.KING.materialScore
+    };
+
     //-------------------------------------------------
     // Member
     //-------------------------------------------------
@@ -88,6 +101,16 @@ public class Attack {
      */
     private static final Magic[] bishopMagics;
 
+    /**
+     * The squares strictly between two squares on a common rank, file or diagonal.
+     */
+    private static final long[][] betweenBitboards;
+
+    /**
+     * The full rank, file or diagonal through two squares. Zero if the squares are not aligned.
+     */
+    private static final long[][] lineBitboards;
+
     //-------------------------------------------------
     // Init
     //-------------------------------------------------
@@ -131,6 +154,11 @@ public class Attack {
 
         calcRookMoveBoards(rookBlockerBoards);
         calcBishopMoveBoards(bishopBlockerBoards);
+
+        // needs the move boards
+        betweenBitboards = new long[64][64];
+        lineBitboards = new long[64][64];
+        calcBetweenAndLineBitboards();
     }
 
     //-------------------------------------------------
@@ -148,6 +176,17 @@ public class Attack {
         return kingMoveBitboards[bitIndex.ordinal()];
     }
 
+    /**
+     * Get moves for any color king.
+     *
+     * @param bitIndex The bit index value of the from square.
+     *
+     * @return A bitboard with all king moves.
+     */
+    public static long getKingMoves(int bitIndex) {
+        return kingMoveBitboards[bitIndex];
+    }
+
     /**
      * Get moves for any color knight.
      *
@@ -159,6 +198,17 @@ public class Attack {
         return knightMoveBitboards[bitIndex.ordinal()];
     }
 
+    /**
+     * Get moves for any color knight.
+     *
+     * @param bitIndex The bit index value of the from square.
+     *
+     * @return A bitboard with all knight moves.
+     */
+    public static long getKnightMoves(int bitIndex) {
+        return knightMoveBitboards[bitIndex];
+    }
+
     /**
      * Get white pawn attacks.
      *
@@ -204,6 +254,18 @@ public class Attack {
         return attacksBitboard;
     }
 
+    /**
+     * Get pawn attacks by {@link Board.Color} and bit index value.
+     *
+     * @param color A white or black {@link Board.Color}.
+     * @param bitIndex The bit index value of the from square.
+     *
+     * @return A bitboard with all pawn attacks.
+     */
+    public static long getPawnAttacks(Board.Color color, int bitIndex) {
+        return color == Board.Color.WHITE ? whitePawnAttackBitboards[bitIndex] : blackPawnAttackBitboards[bitIndex];
+    }
+
     //-------------------------------------------------
     // Sliding pieces
     //-------------------------------------------------
@@ -217,8 +279,20 @@ public class Attack {
      * @return A bitboard with all rook moves.
      */
     public static long getRookMoves(Bitboard.BitIndex bitIndex, long allPieces) {
-        var magic = rookMagics[bitIndex.ordinal()];
-        return magic.moveBoards[(int) ((allPieces & magic.blockerMask) * ROOK_MAGIC_NUMBERS[bitIndex.ordinal()] >>> magic.shift)];
+        return getRookMoves(bitIndex.ordinal(), allPieces);
+    }
+
+    /**
+     * Get moves for any color rook.
+     *
+     * @param bitIndex The bit index value of the from square.
+     * @param allPieces The bitboard with all pieces.
+     *
+     * @return A bitboard with all rook moves.
+     */
+    public static long getRookMoves(int bitIndex, long allPieces) {
+        var magic = rookMagics[bitIndex];
+        return magic.moveBoards[(int) ((allPieces & magic.blockerMask) * ROOK_MAGIC_NUMBERS[bitIndex] >>> magic.shift)];
     }
 
     /**
@@ -230,8 +304,20 @@ public class Attack {
      * @return A bitboard with all bishop moves.
      */
     public static long getBishopMoves(Bitboard.BitIndex bitIndex, long allPieces) {
-        var magic = bishopMagics[bitIndex.ordinal()];
-        return magic.moveBoards[(int) ((allPieces & magic.blockerMask) * BISHOP_MAGIC_NUMBERS[bitIndex.ordinal()] >>> magic.shift)];
+        return getBishopMoves(bitIndex.ordinal(), allPieces);
+    }
+
+    /**
+     * Get moves for any color bishop.
+     *
+     * @param bitIndex The bit index value of the from square.
+     * @param allPieces The bitboard with all pieces.
+     *
+     * @return A bitboard with all bishop moves.
+     */
+    public static long getBishopMoves(int bitIndex, long allPieces) {
+        var magic = bishopMagics[bitIndex];
+        return magic.moveBoards[(int) ((allPieces & magic.blockerMask) * BISHOP_MAGIC_NUMBERS[bitIndex] >>> magic.shift)];
     }
 
     /**
@@ -278,6 +364,25 @@ public class Attack {
         return attackersBitboard;
     }
 
+    /**
+     * Get a bitboard with all attackers of both colors to a given square for a given occupancy.
+     * Pieces not in the occupancy can still be returned; callers mask them out if needed.
+     *
+     * @param bitIndex The bit index value of the square.
+     * @param occupied The bitboard with all pieces that block sliding attackers.
+     * @param board A {@link Board} object.
+     *
+     * @return The bitboard with all attackers.
+     */
+    public static long getAttackersToSquare(int bitIndex, long occupied, Board board) {
+        return (blackPawnAttackBitboards[bitIndex] & board.getWhitePawns()) |
+               (whitePawnAttackBitboards[bitIndex] & board.getBlackPawns()) |
+               (knightMoveBitboards[bitIndex] & board.getAllKnights()) |
+               (kingMoveBitboards[bitIndex] & board.getAllKings()) |
+               (getRookMoves(bitIndex, occupied) & (board.getAllRooks() | board.getAllQueens())) |
+               (getBishopMoves(bitIndex, occupied) & (board.getAllBishops() | board.getAllQueens()));
+    }
+
     /**
      * Convenience method to determine if a king in check.
      *
@@ -392,6 +497,30 @@ public class Attack {
         return isBlackSquareAttacked(Bitboard.getBitIndexByFileAndRank(file, rank), board);
     }
 
+    /**
+     * Checks if one or more of three squares are attacked, e.g. the squares of a castling king.
+     * Unlike the varargs version no array is allocated.
+     *
+     * @param color Which {@link Board.Color} is under attack.
+     * @param board A {@link Board} object.
+     * @param first The {@link Bitboard.BitIndex} of the first square.
+     * @param second The {@link Bitboard.BitIndex} of the second square.
+     * @param third The {@link Bitboard.BitIndex} of the third square.
+     *
+     * @return boolean
+     */
+    public static boolean areOneOrMoreSquaresAttacked(Board.Color color, Board board, Bitboard.BitIndex first, Bitboard.BitIndex second, Bitboard.BitIndex third) {
+        if (color == Board.Color.NONE) {
+            return false;
+        }
+
+        if (color == Board.Color.WHITE) {
+            return isWhiteSquareAttacked(first, board) || isWhiteSquareAttacked(second, board) || isWhiteSquareAttacked(third, board);
+        }
+
+        return isBlackSquareAttacked(first, board) || isBlackSquareAttacked(second, board) || isBlackSquareAttacked(third, board);
+    }
+
     /**
      * Checks if one or more squares are attacked.
      *
@@ -421,6 +550,367 @@ public class Attack {
         return false;
     }
 
+    //-------------------------------------------------
+    // Between && line
+    //-------------------------------------------------
+
+    /**
+     * Get the squares strictly between two squares.
+     *
+     * @param fromBitIndex The bit index value of the first square.
+     * @param toBitIndex The bit index value of the second square.
+     *
+     * @return A bitboard with the squares between; zero if the squares are not on a common rank, file or diagonal.
+     */
+    public static long getBetween(int fromBitIndex, int toBitIndex) {
+        return betweenBitboards[fromBitIndex][toBitIndex];
+    }
+
+    /**
+     * Get the full rank, file or diagonal through two squares (edge to edge, including both squares).
+     *
+     * @param fromBitIndex The bit index value of the first square.
+     * @param toBitIndex The bit index value of the second square.
+     *
+     * @return A bitboard with the line; zero if the squares are not on a common rank, file or diagonal.
+     */
+    public static long getLine(int fromBitIndex, int toBitIndex) {
+        return lineBitboards[fromBitIndex][toBitIndex];
+    }
+
+    /**
+     * Checks whether three squares are on a common rank, file or diagonal.
+     *
+     * @param bitIndex0 The bit index value of the first square.
+     * @param bitIndex1 The bit index value of the second square.
+     * @param bitIndex2 The bit index value of the third square.
+     *
+     * @return boolean
+     */
+    public static boolean areAligned(int bitIndex0, int bitIndex1, int bitIndex2) {
+        return (lineBitboards[bitIndex0][bitIndex1] & Bitboard.SQUARES[bitIndex2]) != 0;
+    }
+
+    //-------------------------------------------------
+    // Checkers && pins
+    //-------------------------------------------------
+
+    /**
+     * Get all enemy pieces giving check to the king of the given {@link Board.Color}.
+     *
+     * @param color The {@link Board.Color} of the king.
+     * @param board A {@link Board} object.
+     *
+     * @return The bitboard with all checkers.
+     */
+    public static long getCheckers(Board.Color color, Board board) {
+        if (color == Board.Color.NONE) {
+            return 0L;
+        }
+
+        return getAttackersToSquare(color, Bitboard.getLsb(board.getKing(color)), board);
+    }
+
+    /**
+     * Get the pieces (of any color) which are the only piece between a square and a given slider.
+     * A blocker of the own color is pinned, a blocker of the slider's color can give a discovered attack.
+     *
+     * @param bitIndex The bit index value of the square, usually a king.
+     * @param sliders The sliding pieces whose lines to the square are examined.
+     * @param board A {@link Board} object.
+     *
+     * @return The bitboard with all blockers.
+     */
+    public static long getSliderBlockers(int bitIndex, long sliders, Board board) {
+        var blockersBitboard = 0L;
+
+        // sliders that would attack the square on an empty board
+        var snipers = sliders & (
+                (getRookMoves(bitIndex, 0L) & (board.getAllRooks() | board.getAllQueens())) |
+                (getBishopMoves(bitIndex, 0L) & (board.getAllBishops() | board.getAllQueens()))
+        );
+
+        var occupied = board.getAllPieces() & ~snipers;
+
+        while (snipers != 0) {
+            var sniperBitIndex = Long.numberOfTrailingZeros(snipers);
+            var between = betweenBitboards[bitIndex][sniperBitIndex] & occupied;
+
+            // exactly one piece between
+            if (between != 0 && (between & (between - 1)) == 0) {
+                blockersBitboard |= between;
+            }
+
+            snipers &= snipers - 1;
+        }
+
+        return blockersBitboard;
+    }
+
+    /**
+     * Get all pieces of the given {@link Board.Color} that are pinned to their own king by an enemy slider.
+     *
+     * @param color The {@link Board.Color} of the pinned pieces.
+     * @param board A {@link Board} object.
+     *
+     * @return The bitboard with all pinned pieces.
+     */
+    public static long getPinnedPieces(Board.Color color, Board board) {
+        if (color == Board.Color.NONE) {
+            return 0L;
+        }
+
+        var enemyColor = color.getEnemyColor();
+        var kingBitIndex = Long.numberOfTrailingZeros(board.getKing(color));
+        var enemySliders = board.getBishops(enemyColor) | board.getRooks(enemyColor) | board.getQueens(enemyColor);
+
+        return getSliderBlockers(kingBitIndex, enemySliders, board) & getPieces(color, board);
+    }
+
+    /**
+     * Get all pieces of the given {@link Board.Color} that block an own slider's line to the enemy king.
+     * Moving such a piece off the line gives a discovered check.
+     *
+     * @param color The {@link Board.Color} of the side that could give a discovered check.
+     * @param board A {@link Board} object.
+     *
+     * @return The bitboard with all discovered check candidates.
+     */
+    public static long getDiscoveredCheckCandidates(Board.Color color, Board board) {
+        if (color == Board.Color.NONE) {
+            return 0L;
+        }
+
+        var enemyKingBitIndex = Long.numberOfTrailingZeros(board.getKing(color.getEnemyColor()));
+        var ownSliders = board.getBishops(color) | board.getRooks(color) | board.getQueens(color);
+
+        return getSliderBlockers(enemyKingBitIndex, ownSliders, board) & getPieces(color, board);
+    }
+
+    //-------------------------------------------------
+    // Static Exchange Evaluation
+    //-------------------------------------------------
+
+    /*
+       The SEE plays out all captures on the destination square of a move, always with the least valuable
+       attacker, and each side may stop capturing if continuing would lose material. Sliders behind a
+       capturing piece (x-rays) join the exchange as soon as the square in front of them is vacated.
+       Pins are ignored. Nothing is allocated; the exchange is walked recursively with at most 32 levels.
+    */
+
+    /**
+     * Static Exchange Evaluation of a {@link Move}.
+     * Quiet moves are evaluated too; then the result is zero or the loss of the moving piece.
+     *
+     * @param move The {@link Move} of the color to move.
+     * @param board A {@link Board} object.
+     *
+     * @return The material balance of the exchange from the point of view of the moving side.
+     */
+    public static int see(Move move, Board board) {
+        var flagValue = move.getMoveFlagValue();
+        if (flagValue == Move.MoveFlag.CASTLING.ordinal()) {
+            return 0;
+        }
+
+        var from = move.getFrom();
+        var to = move.getTo();
+
+        var occupied = (board.getAllPieces() ^ Bitboard.SQUARES[from]) | Bitboard.SQUARES[to];
+        if (flagValue == Move.MoveFlag.EN_PASSANT.ordinal()) {
+            occupied ^= Bitboard.SQUARES[getEnPassantCaptureSquare(move, board)];
+        }
+
+        var attackers = getAttackersToSquare(to, occupied, board) & occupied;
+
+        return getSeeGain(move) - seeExchange(board, to, board.getColorToMove().getEnemyColor(), occupied, attackers, getSeePieceOnToValue(move));
+    }
+
+    /**
+     * Fast Static Exchange Evaluation threshold test.
+     * Stops as soon as the outcome relative to the threshold is known.
+     *
+     * @param move The {@link Move} of the color to move.
+     * @param board A {@link Board} object.
+     * @param threshold The material balance to be reached.
+     *
+     * @return True if the exchange started by the move gains at least the threshold.
+     */
+    public static boolean seeGreaterOrEqual(Move move, Board board, int threshold) {
+        var flagValue = move.getMoveFlagValue();
+        if (flagValue == Move.MoveFlag.CASTLING.ordinal()) {
+            return threshold <= 0;
+        }
+
+        // the opponent may stop the exchange right now
+        var swap = getSeeGain(move) - threshold;
+        if (swap < 0) {
+            return false;
+        }
+
+        // we would still be above the threshold after losing the piece on the square
+        swap = getSeePieceOnToValue(move) - swap;
+        if (swap <= 0) {
+            return true;
+        }
+
+        var from = move.getFrom();
+        var to = move.getTo();
+
+        var occupied = (board.getAllPieces() ^ Bitboard.SQUARES[from]) | Bitboard.SQUARES[to];
+        if (flagValue == Move.MoveFlag.EN_PASSANT.ordinal()) {
+            occupied ^= Bitboard.SQUARES[getEnPassantCaptureSquare(move, board)];
+        }
+
+        var attackers = getAttackersToSquare(to, occupied, board);
+        var diagonalSliders = board.getAllBishops() | board.getAllQueens();
+        var straightSliders = board.getAllRooks() | board.getAllQueens();
+
+        var color = board.getColorToMove();
+        var result = 1;
+
+        while (true) {
+            color = color.getEnemyColor();
+            attackers &= occupied;
+
+            var colorAttackers = attackers & getPieces(color, board);
+            if (colorAttackers == 0) {
+                break;
+            }
+
+            result ^= 1;
+
+            long bitboard;
+            if ((bitboard = colorAttackers & board.getPawns(color)) != 0) {
+                if ((swap = PieceType.PAWN.materialScore - swap) < result) {
+                    break;
+                }
+                occupied ^= bitboard & -bitboard;
+                attackers |= getBishopMoves(to, occupied) & diagonalSliders;
+            } else if ((bitboard = colorAttackers & board.getKnights(color)) != 0) {
+                if ((swap = PieceType.KNIGHT.materialScore - swap) < result) {
+                    break;
+                }
+                occupied ^= bitboard & -bitboard;
+            } else if ((bitboard = colorAttackers & board.getBishops(color)) != 0) {
+                if ((swap = PieceType.BISHOP.materialScore - swap) < result) {
+                    break;
+                }
+                occupied ^= bitboard & -bitboard;
+                attackers |= getBishopMoves(to, occupied) & diagonalSliders;
+            } else if ((bitboard = colorAttackers & board.getRooks(color)) != 0) {
+                if ((swap = PieceType.ROOK.materialScore - swap) < result) {
+                    break;
+                }
+                occupied ^= bitboard & -bitboard;
+                attackers |= getRookMoves(to, occupied) & straightSliders;
+            } else if ((bitboard = colorAttackers & board.getQueens(color)) != 0) {
+                if ((swap = PieceType.QUEEN.materialScore - swap) < result) {
+                    break;
+                }
+                occupied ^= bitboard & -bitboard;
+                attackers |= (getBishopMoves(to, occupied) & diagonalSliders) | (getRookMoves(to, occupied) & straightSliders);
+            } else {
+                // the king may only capture if the other side has no attackers left
+                return (attackers & ~getPieces(color, board)) != 0 ? (result ^ 1) != 0 : result != 0;
+            }
+        }
+
+        return result != 0;
+    }
+
+    /**
+     * The recursive part of the full Static Exchange Evaluation.
+     *
+     * @param board A {@link Board} object.
+     * @param to The bit index value of the exchange square.
+     * @param color The {@link Board.Color} that may capture next.
+     * @param occupied The current occupancy.
+     * @param attackers All remaining attackers of both colors.
+     * @param victimValue The value of the piece which is currently on the exchange square.
+     *
+     * @return The best material gain of the given color from this point on; never negative.
+     */
+    private static int seeExchange(Board board, int to, Board.Color color, long occupied, long attackers, int victimValue) {
+        var colorAttackers = attackers & getPieces(color, board);
+        if (colorAttackers == 0) {
+            return 0;
+        }
+
+        // find the least valuable attacker
+        var attackerValue = 0;
+        var attackerBitboard = 0L;
+        for (var pieceType = PieceType.PAWN.value; pieceType <= PieceType.KING.value; pieceType++) {
+            var bitboard = colorAttackers & board.getBitboards()[PieceType.getBitboardNumber(pieceType, color.value)];
+            if (bitboard != 0) {
+                attackerValue = SEE_PIECE_VALUES[pieceType];
+                attackerBitboard = bitboard & -bitboard;
+                break;
+            }
+        }
+
+        // the king cannot capture a defended piece
+        if (attackerValue == PieceType.KING.materialScore && (attackers & ~getPieces(color, board)) != 0) {
+            return 0;
+        }
+
+        occupied ^= attackerBitboard;
+
+        // add x-ray attackers
+        attackers |= getBishopMoves(to, occupied) & (board.getAllBishops() | board.getAllQueens());
+        attackers |= getRookMoves(to, occupied) & (board.getAllRooks() | board.getAllQueens());
+        attackers &= occupied;
+
+        return Math.max(0, victimValue - seeExchange(board, to, color.getEnemyColor(), occupied, attackers, attackerValue));
+    }
+
+    /**
+     * The material gained by a {@link Move} itself (captured piece and promotion).
+     *
+     * @param move A {@link Move}.
+     *
+     * @return The material gain.
+     */
+    private static int getSeeGain(Move move) {
+        var gain = SEE_PIECE_VALUES[move.getCapturedPieceTypeValue()];
+
+        var promotedPieceTypeValue = move.getPromotedPieceTypeValue();
+        if (promotedPieceTypeValue != PieceType.NO_PIECE.value) {
+            gain += SEE_PIECE_VALUES[promotedPieceTypeValue] - PieceType.PAWN.materialScore;
+        }
+
+        return gain;
+    }
+
+    /**
+     * The value of the piece standing on the destination square after a {@link Move}.
+     *
+     * @param move A {@link Move}.
+     *
+     * @return The value of the moved or promoted piece.
+     */
+    private static int getSeePieceOnToValue(Move move) {
+        var promotedPieceTypeValue = move.getPromotedPieceTypeValue();
+        if (promotedPieceTypeValue != PieceType.NO_PIECE.value) {
+            return SEE_PIECE_VALUES[promotedPieceTypeValue];
+        }
+
+        // piece values 0 - 5 are white, 6 - 11 black
+        return SEE_PIECE_VALUES[move.getPieceValue() % 6 + 1];
+    }
+
+    /**
+     * The square of the pawn captured by an en passant {@link Move}.
+     *
+     * @param move An en passant {@link Move}.
+     * @param board A {@link Board} object.
+     *
+     * @return The bit index value of the captured pawn.
+     */
+    private static int getEnPassantCaptureSquare(Move move, Board board) {
+        return board.getColorToMove() == Board.Color.WHITE ? move.getTo() - 8 : move.getTo() + 8;
+    }
+
     //-------------------------------------------------
     // Blocker masks
     //-------------------------------------------------
@@ -835,6 +1325,37 @@ public class Attack {
         return pawnAttackBitboards;
     }
 
+    //-------------------------------------------------
+    // Calculate between and line bitboards
+    //-------------------------------------------------
+
+    /**
+     * Calculate the between and line bitboards for every pair of squares.
+     * Uses the rook and bishop move boards, so the magics must be initialized first.
+     */
+    private static void calcBetweenAndLineBitboards() {
+        for (var from = 0; from < 64; from++) {
+            for (var to = 0; to < 64; to++) {
+                if (from == to) {
+                    continue;
+                }
+
+                var fromBitboard = Bitboard.SQUARES[from];
+                var toBitboard = Bitboard.SQUARES[to];
+
+                if ((getRookMoves(from, 0L) & toBitboard) != 0) {
+                    betweenBitboards[from][to] = getRookMoves(from, toBitboard) & getRookMoves(to, fromBitboard);
+                    lineBitboards[from][to] = (getRookMoves(from, 0L) & getRookMoves(to, 0L)) | fromBitboard | toBitboard;
+                }
+
+                if ((getBishopMoves(from, 0L) & toBitboard) != 0) {
+                    betweenBitboards[from][to] = getBishopMoves(from, toBitboard) & getBishopMoves(to, fromBitboard);
+                    lineBitboards[from][to] = (getBishopMoves(from, 0L) & getBishopMoves(to, 0L)) | fromBitboard | toBitboard;
+                }
+            }
+        }
+    }
+
     //-------------------------------------------------
     // Helper
     //-------------------------------------------------
@@ -851,4 +1372,16 @@ public class Attack {
             bishopMagics[i].shift = 64 - Long.bitCount(bishopMagics[i].blockerMask);
         }
     }
+
+    /**
+     * Get all pieces of the given {@link Board.Color}.
+     *
+     * @param color A white or black {@link Board.Color}.
+     * @param board A {@link Board} object.
+     *
+     * @return The bitboard with all pieces of the color.
+     */
+    private static long getPieces(Board.Color color, Board board) {
+        return color == Board.Color.WHITE ? board.getWhitePieces() : board.getBlackPieces();
+    }
 }
@@ -0,0 +1,242 @@
+/*
+ * This file is part of the SgChess project.
+ * Copyright (c) 2021 stwe <https://github.com/stwe/SgChess>
+ * License: GNU GPLv2
+ */
+
+import java.util.Objects;
+
+/**
+ * Represents an AttackTable object.
+ * Keeps the attacks of every piece and the number of attackers per square and color
+ * up to date while moves are made and taken back, instead of recomputing them on each query.
+ */
+public class AttackTable {
+
+    //-------------------------------------------------
+    // Member
+    //-------------------------------------------------
+
+    /**
+     * The parent {@link Board} object.
+     */
+    private final Board board;
+
+    /**
+     * The attacked squares of the piece on each square; zero for empty squares.
+     */
+    private final long[] attacksFrom = new long[64];
+
+    /**
+     * The {@link Board.Color} value of the piece on each square, {@link Board.Color#NONE} for empty squares.
+     */
+    private final int[] attackerColors = new int[64];
+
+    /**
+     * The number of pieces of each {@link Board.Color} attacking a square.
+     */
+    private final int[][] attackCounts = new int[2][64];
+
+    //-------------------------------------------------
+    // Ctors.
+    //-------------------------------------------------
+
+    /**
+     * Constructs a new {@link AttackTable} object.
+     *
+     * @param board The parent {@link Board} object.
+     */
+    public AttackTable(Board board) {
+        this.board = Objects.requireNonNull(board, "board must not be null");
+
+        init();
+    }
+
+    //-------------------------------------------------
+    // Getter
+    //-------------------------------------------------
+
+    /**
+     * Get the attacked squares of the piece on a square.
+     *
+     * @param bitIndex The bit index value of the square.
+     *
+     * @return A bitboard with the attacked squares; zero for an empty square.
+     */
+    public long getAttacksFrom(int bitIndex) {
+        return attacksFrom[bitIndex];
+    }
+
+    /**
+     * Get the number of pieces of a {@link Board.Color} attacking a square.
+     *
+     * @param color The {@link Board.Color} of the attackers.
+     * @param bitIndex The bit index value of the square.
+     *
+     * @return The number of attackers.
+     */
+    public int getAttackCount(Board.Color color, int bitIndex) {
+        return attackCounts[color.value][bitIndex];
+    }
+
+    /**
+     * Checks whether a square is attacked by a {@link Board.Color}.
+     *
+     * @param color The {@link Board.Color} of the attackers.
+     * @param bitIndex The bit index value of the square.
+     *
+     * @return boolean
+     */
+    public boolean isAttackedBy(Board.Color color, int bitIndex) {
+        return attackCounts[color.value][bitIndex] > 0;
+    }
+
+    /**
+     * Checks whether the king of a {@link Board.Color} is in check.
+     *
+     * @param color The {@link Board.Color} of the king.
+     *
+     * @return boolean
+     */
+    public boolean isCheck(Board.Color color) {
+        if (color == Board.Color.NONE) {
+            return false;
+        }
+
+        return isAttackedBy(color.getEnemyColor(), Long.numberOfTrailingZeros(board.getKing(color)));
+    }
+
+    /**
+     * The number of squares attacked by the pieces of a {@link Board.Color} that are not occupied by own pieces.
+     *
+     * @param color A white or black {@link Board.Color}.
+     *
+     * @return The mobility.
+     */
+    public int getMobility(Board.Color color) {
+        var ownPieces = color == Board.Color.WHITE ? board.getWhitePieces() : board.getBlackPieces();
+        var pieces = ownPieces;
+        var mobility = 0;
+
+        while (pieces != 0) {
+            mobility += Long.bitCount(attacksFrom[Long.numberOfTrailingZeros(pieces)] & ~ownPieces);
+            pieces &= pieces - 1;
+        }
+
+        return mobility;
+    }
+
+    //-------------------------------------------------
+    // Update
+    //-------------------------------------------------
+
+    /**
+     * Recomputes the whole table from the current position.
+     */
+    public void init() {
+        for (var square = 0; square < 64; square++) {
+            attacksFrom[square] = 0L;
+            attackerColors[square] = Board.Color.NONE.value;
+            attackCounts[Board.Color.WHITE.value][square] = 0;
+            attackCounts[Board.Color.BLACK.value][square] = 0;
+        }
+
+        var pieces = board.getAllPieces();
+        while (pieces != 0) {
+            addAttacks(Long.numberOfTrailingZeros(pieces));
+            pieces &= pieces - 1;
+        }
+    }
+
+    /**
+     * Incrementally updates the table after pieces were added to or removed from the given squares.
+     * Recomputes the pieces on those squares and only the sliders whose rays reach one of them.
+     *
+     * @param changedSquares A bitboard with all squares whose occupation has changed.
+     */
+    public void update(long changedSquares) {
+        var recompute = changedSquares;
+
+        // a slider ray crossing a changed square always ends on or passes that square
+        var sliders = (board.getAllBishops() | board.getAllRooks() | board.getAllQueens()) & ~changedSquares;
+        while (sliders != 0) {
+            var square = Long.numberOfTrailingZeros(sliders);
+            if ((attacksFrom[square] & changedSquares) != 0) {
+                recompute |= Bitboard.SQUARES[square];
+            }
+
+            sliders &= sliders - 1;
+        }
+
+        // stale sliders which do not exist anymore are on changed squares
+        var stale = recompute;
+        while (stale != 0) {
+            removeAttacks(Long.numberOfTrailingZeros(stale));
+            stale &= stale - 1;
+        }
+
+        recompute &= board.getAllPieces();
+        while (recompute != 0) {
+            addAttacks(Long.numberOfTrailingZeros(recompute));
+            recompute &= recompute - 1;
+        }
+    }
+
+    //-------------------------------------------------
+    // Helper
+    //-------------------------------------------------
+
+    /**
+     * Computes and adds the attacks of the piece on a square.
+     *
+     * @param square The bit index value of an occupied square.
+     */
+    private void addAttacks(int square) {
+        var squareBitboard = Bitboard.SQUARES[square];
+        var color = (board.getWhitePieces() & squareBitboard) != 0 ? Board.Color.WHITE : Board.Color.BLACK;
+        var attacks = 0L;
+
+        if ((board.getAllPawns() & squareBitboard) != 0) {
+            attacks = Attack.getPawnAttacks(color, square);
+        } else if ((board.getAllKnights() & squareBitboard) != 0) {
+            attacks = Attack.getKnightMoves(square);
+        } else if ((board.getAllBishops() & squareBitboard) != 0) {
+            attacks = Attack.getBishopMoves(square, board.getAllPieces());
+        } else if ((board.getAllRooks() & squareBitboard) != 0) {
+            attacks = Attack.getRookMoves(square, board.getAllPieces());
+        } else if ((board.getAllQueens() & squareBitboard) != 0) {
+            attacks = Attack.getBishopMoves(square, board.getAllPieces()) | Attack.getRookMoves(square, board.getAllPieces());
+        } else if ((board.getAllKings() & squareBitboard) != 0) {
+            attacks = Attack.getKingMoves(square);
+        }
+
+        attacksFrom[square] = attacks;
+        attackerColors[square] = color.value;
+
+        var counts = attackCounts[color.value];
+        while (attacks != 0) {
+            counts[Long.numberOfTrailingZeros(attacks)]++;
+            attacks &= attacks - 1;
+        }
+    }
+
+    /**
+     * Removes the stored attacks of a square.
+     *
+     * @param square The bit index value of the square.
+     */
+    private void removeAttacks(int square) {
+        var attacks = attacksFrom[square];
+
+        if (attacks != 0) {
+            var counts = attackCounts[attackerColors[square]];
+            while (attacks != 0) {
+                counts[Long.numberOfTrailingZeros(attacks)]--;
+                attacks &= attacks - 1;
+            }
+        }
+
+        attacksFrom[square] = 0L;
+        attackerColors[square] = Board.Color.NONE.value;
+    }
+}
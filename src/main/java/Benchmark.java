@@ -0,0 +1,221 @@
+/*
+ * This file is part of the SgChess project.
+ * Copyright (c) 2021 stwe <https://github.com/stwe/SgChess>
+ * License: GNU GPLv2
+ */
+
+/**
+ * Represents a Benchmark object.
+ * Measures the speed of the {@link AttackTable}, the {@link LazySmp} search and the
+ * {@link Config#INTERNAL_ITERATIVE} modes. The results are printed to the console.
+ */
+public class Benchmark {
+
+    //-------------------------------------------------
+    // Constants
+    //-------------------------------------------------
+
+    /**
+     * The position of all benchmarks; it has many captures, checks, pins and castling moves.
+     */
+    private static final String KIWIPETE_FEN = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    /**
+     * The depth of the tree walked by the {@link AttackTable} benchmark.
+     */
+    private static final int DEPTH = 4;
+
+    /**
+     * The search depth of the {@link LazySmp} benchmark.
+     */
+    private static final int SMP_DEPTH = 5;
+
+    /**
+     * The search depth of the {@link Config#INTERNAL_ITERATIVE} benchmark.
+     */
+    private static final int INTERNAL_ITERATIVE_DEPTH = 10;
+
+    //-------------------------------------------------
+    // Member
+    //-------------------------------------------------
+
+    /**
+     * The number of visited nodes.
+     */
+    private static long nodes;
+
+    /**
+     * Accumulates the queried values, so that the work cannot be optimized away.
+     */
+    private static long checksum;
+
+    //-------------------------------------------------
+    // Benchmark
+    //-------------------------------------------------
+
+    /**
+     * Runs all benchmarks.
+     */
+    public static void main(String[] args) {
+        attackTable();
+        lazySmp();
+        internalIterative();
+    }
+
+    /**
+     * Compares on demand check detection and mobility with the incrementally updated {@link AttackTable}.
+     */
+    private static void attackTable() {
+        // warm up
+        run(false, DEPTH - 1);
+        run(true, DEPTH - 1);
+
+        report("on demand", false);
+        report("attack table", true);
+    }
+
+    /**
+     * Time to depth and node counts of a {@link LazySmp} search with 1, 2, 4, 8 and 16 threads.
+     */
+    private static void lazySmp() {
+        // warm up
+        new LazySmp(new Board(KIWIPETE_FEN), new TranspositionTable(Config.HASH_SIZE), 1).search(SMP_DEPTH - 2, 0, 0);
+
+        for (var threads = 1; threads <= 16; threads *= 2) {
+            var start = System.nanoTime();
+            var result = new LazySmp(new Board(KIWIPETE_FEN), new TranspositionTable(Config.HASH_SIZE), threads).search(SMP_DEPTH, 0, 0);
+            var ms = (System.nanoTime() - start) / 1000000L;
+
+            System.out.println(threads + " threads: depth " + result.depth + " in " + ms + " ms, " + result.nodes + " nodes (" + (result.nodes * 1000L / Math.max(ms, 1L)) + " nps), best move " + result.bestMove);
+        }
+    }
+
+    /**
+     * Time to depth of the {@link Config#INTERNAL_ITERATIVE} modes.
+     */
+    private static void internalIterative() {
+        var oldMode = Config.INTERNAL_ITERATIVE;
+
+        for (var mode : Search.InternalIterative.values()) {
+            Config.INTERNAL_ITERATIVE = mode;
+
+            var start = System.nanoTime();
+            var result = new Search(new Board(KIWIPETE_FEN)).iterativeDeepening(INTERNAL_ITERATIVE_DEPTH, 0, 0);
+            var ms = (System.nanoTime() - start) / 1000000L;
+
+            System.out.println(mode + ": depth " + result.depth + " in " + ms + " ms, " + result.nodes + " nodes, best move " + result.bestMove);
+        }
+
+        Config.INTERNAL_ITERATIVE = oldMode;
+    }
+
+    //-------------------------------------------------
+    // Helper
+    //-------------------------------------------------
+
+    /**
+     * Walks the tree with or without {@link AttackTable} and prints the nodes per second.
+     *
+     * @param name The name printed with the result.
+     * @param useAttackTable True if the {@link AttackTable} is used.
+     */
+    private static void report(String name, boolean useAttackTable) {
+        var start = System.nanoTime();
+        run(useAttackTable, DEPTH);
+        var ms = (System.nanoTime() - start) / 1000000L;
+
+        System.out.println(name + ": " + nodes + " nodes in " + ms + " ms (" + (nodes * 1000L / Math.max(ms, 1L)) + " nps), checksum " + checksum);
+    }
+
+    /**
+     * Walks the tree of the kiwipete position and resets {@link #nodes} and {@link #checksum} before.
+     *
+     * @param useAttackTable True if the {@link AttackTable} is used.
+     * @param depth The depth of the tree.
+     */
+    private static void run(boolean useAttackTable, int depth) {
+        var board = new Board(KIWIPETE_FEN);
+        board.setAttackTableEnabled(useAttackTable);
+
+        nodes = 0;
+        checksum = 0;
+
+        walk(board, depth);
+    }
+
+    /**
+     * Visits all legal moves like a perft and queries check and mobility at every node.
+     *
+     * @param board A {@link Board} object.
+     * @param depth The remaining depth.
+     */
+    private static void walk(Board board, int depth) {
+        nodes++;
+
+        var color = board.getColorToMove();
+        if (board.getAttackTable() != null) {
+            checksum += board.getAttackTable().isCheck(color) ? 1 : 0;
+            checksum += board.getAttackTable().getMobility(Board.Color.WHITE) - board.getAttackTable().getMobility(Board.Color.BLACK);
+        } else {
+            checksum += Attack.isCheck(color, board) ? 1 : 0;
+            checksum += getMobility(Board.Color.WHITE, board) - getMobility(Board.Color.BLACK, board);
+        }
+
+        if (depth == 0) {
+            return;
+        }
+
+        var moveGenerator = new MoveGenerator(board);
+        moveGenerator.generatePseudoLegalMoves();
+
+        for (var move : moveGenerator.getPseudoLegalMoves()) {
+            if (!board.makeMove(move)) {
+                continue;
+            }
+
+            walk(board, depth - 1);
+
+            board.undoMove(move);
+        }
+    }
+
+    /**
+     * Computes the mobility of a {@link Board.Color} on demand with the magic bitboard lookups.
+     *
+     * @param color A white or black {@link Board.Color}.
+     * @param board A {@link Board} object.
+     *
+     * @return The mobility.
+     */
+    private static int getMobility(Board.Color color, Board board) {
+        var ownPieces = color == Board.Color.WHITE ? board.getWhitePieces() : board.getBlackPieces();
+        var allPieces = board.getAllPieces();
+        var pieces = ownPieces;
+        var mobility = 0;
+
+        while (pieces != 0) {
+            var square = Long.numberOfTrailingZeros(pieces);
+            var squareBitboard = Bitboard.SQUARES[square];
+            var attacks = 0L;
+
+            if ((board.getAllPawns() & squareBitboard) != 0) {
+                attacks = Attack.getPawnAttacks(color, square);
+            } else if ((board.getAllKnights() & squareBitboard) != 0) {
+                attacks = Attack.getKnightMoves(square);
+            } else if ((board.getAllBishops() & squareBitboard) != 0) {
+                attacks = Attack.getBishopMoves(square, allPieces);
+            } else if ((board.getAllRooks() & squareBitboard) != 0) {
+                attacks = Attack.getRookMoves(square, allPieces);
+            } else if ((board.getAllQueens() & squareBitboard) != 0) {
+                attacks = Attack.getBishopMoves(square, allPieces) | Attack.getRookMoves(square, allPieces);
+            } else if ((board.getAllKings() & squareBitboard) != 0) {
+                attacks = Attack.getKingMoves(square);
+            }
+
+            mobility += Long.bitCount(attacks & ~ownPieces);
+            pieces &= pieces - 1;
+        }
+
+        return mobility;
+    }
+}
@@ -280,6 +280,11 @@ public class Bitboard {
         NO_SQUARE
     }
 
+    /**
+     * The {@link BitIndex} values by ordinal; {@link BitIndex#values()} would copy the array on each call.
+     */
+    public static final BitIndex[] BIT_INDICES = BitIndex.values();
+
     //-------------------------------------------------
     // Files && Ranks
     //-------------------------------------------------
@@ -435,7 +440,7 @@ public class Bitboard {
      * @return {@link BitIndex}
      */
     public static BitIndex getBitIndexByFileAndRank(File file, Rank rank) {
-        return BitIndex.values()[8 * rank.ordinal() + file.ordinal()];
+        return BIT_INDICES[8 * rank.ordinal() + file.ordinal()];
     }
 
     /**
@@ -446,7 +451,7 @@ public class Bitboard {
      * @return The {@link BitIndex} of the given bitboard's least significant bit.
      */
     public static BitIndex getLsb(long bitboard) {
-        return BitIndex.values()[Long.numberOfTrailingZeros(bitboard)];
+        return BIT_INDICES[Long.numberOfTrailingZeros(bitboard)];
     }
 
     /**
@@ -4,7 +4,6 @@
  * License: GNU GPLv2
  */
 
-import java.util.List;
 import java.util.Objects;
 
 /**
@@ -82,35 +81,25 @@ public class Board {
      */
     private Bitboard.BitIndex epIndex = Bitboard.BitIndex.NO_SQUARE;
 
-    /**
-     * The {@link Bitboard.BitIndex} of the old {@link #epIndex}.
-     */
-    private Bitboard.BitIndex oldEpIndex = Bitboard.BitIndex.NO_SQUARE;
-
     /**
      * The current Zobrist key.
      */
     private long zkey;
 
-    /**
-     * The old Zobrist key.
-     */
-    private long oldZkey;
-
     /**
      * The number of halfmoves since the last capture or pawn advance, used for the fifty-move rule.
      */
     private int halfMovesCounter;
 
     /**
-     * The old {@link #halfMovesCounter} value.
+     * The number of the full move. It starts at 1, and is incremented after Black's move.
      */
-    private int oldHalfMovesCounter;
+    private int movesCounter;
 
     /**
-     * The number of the full move. It starts at 1, and is incremented after Black's move.
+     * Incrementally updated attacks; null unless enabled with {@link #setAttackTableEnabled(boolean)}.
      */
-    private int movesCounter;
+    private AttackTable attackTable;
 
     //-------------------------------------------------
     // Ctors.
@@ -133,6 +122,30 @@ public class Board {
         updateCommonBitboards();
     }
 
+    /**
+     * Constructs a new {@link Board} object as an independent copy of another {@link Board},
+     * e.g. for a search thread.
+     *
+     * @param board The {@link Board} to copy.
+     */
+    public Board(Board board) {
+        Objects.requireNonNull(board, "board must not be null");
+
+        System.arraycopy(board.bitboards, 0, bitboards, 0, bitboards.length);
+        colorToMove = board.colorToMove;
+        castlingRights = board.castlingRights;
+        epIndex = board.epIndex;
+        zkey = board.zkey;
+        halfMovesCounter = board.halfMovesCounter;
+        movesCounter = board.movesCounter;
+
+        updateCommonBitboards();
+
+        if (board.attackTable != null) {
+            attackTable = new AttackTable(this);
+        }
+    }
+
     //-------------------------------------------------
     // Getter - white pieces
     //-------------------------------------------------
@@ -369,15 +382,6 @@ public class Board {
         return epIndex;
     }
 
-    /**
-     * Get {@link #oldEpIndex}.
-     *
-     * @return {@link #oldEpIndex}
-     */
-    public Bitboard.BitIndex getOldEpIndex() {
-        return oldEpIndex;
-    }
-
     /**
      * Get {@link #zkey}.
      *
@@ -396,6 +400,15 @@ public class Board {
         return halfMovesCounter;
     }
 
+    /**
+     * Get {@link #attackTable}.
+     *
+     * @return {@link #attackTable} or null if the incremental attack table is disabled.
+     */
+    public AttackTable getAttackTable() {
+        return attackTable;
+    }
+
     //-------------------------------------------------
     // Setter
     //-------------------------------------------------
@@ -427,6 +440,36 @@ public class Board {
         this.halfMovesCounter = halfMovesCounter;
     }
 
+    /**
+     * Enables or disables the incrementally updated {@link AttackTable}.
+     * When enabled, makeMove/undoMove keep it up to date and check detection reads from it.
+     *
+     * @param enabled True to maintain an {@link AttackTable}.
+     */
+    public void setAttackTableEnabled(boolean enabled) {
+        attackTable = enabled ? new AttackTable(this) : null;
+    }
+
+    //-------------------------------------------------
+    // Check
+    //-------------------------------------------------
+
+    /**
+     * Checks whether the king of the given {@link Color} is in check.
+     * Uses the {@link AttackTable} if enabled; otherwise the attacks are computed on demand.
+     *
+     * @param color The {@link Color} of the king.
+     *
+     * @return boolean
+     */
+    public boolean isCheck(Color color) {
+        if (attackTable != null) {
+            return attackTable.isCheck(color);
+        }
+
+        return Attack.isCheck(color, this);
+    }
+
     //-------------------------------------------------
     // Castling
     //-------------------------------------------------
@@ -493,6 +536,81 @@ public class Board {
         zkey ^= Zkey.piece[color][pieceType][square];
     }
 
+    /**
+     * Computes the Zobrist key of the position after a {@link Move} without making it.
+     * The {@link Board} is not changed and the legality of the {@link Move} is not checked.
+     *
+     * @param move A pseudo legal {@link Move} of the color to move.
+     *
+     * @return The Zobrist key of the child position.
+     */
+    public long keyAfter(Move move) {
+        var key = zkey ^ Zkey.whiteColorToMove;
+
+        var color = colorToMove.value;
+        var enemyColor = colorToMove.getEnemyColor().value;
+        var from = move.getFrom();
+        var to = move.getTo();
+        var pieceType = move.getPiece().pieceType.value;
+        var moveFlag = move.getMoveFlag();
+        var newEpIndex = Bitboard.BitIndex.NO_SQUARE;
+
+        if (moveFlag == Move.MoveFlag.CAPTURE || moveFlag == Move.MoveFlag.PROMOTION_CAPTURE) {
+            key ^= Zkey.piece[enemyColor][move.getCapturedPieceType().value][to];
+        }
+
+        if (moveFlag == Move.MoveFlag.PROMOTION || moveFlag == Move.MoveFlag.PROMOTION_CAPTURE) {
+            key ^= Zkey.piece[color][PieceType.PAWN.value][from];
+            key ^= Zkey.piece[color][move.getPromotedPieceType().value][to];
+        } else {
+            key ^= Zkey.piece[color][pieceType][from];
+            key ^= Zkey.piece[color][pieceType][to];
+        }
+
+        if (moveFlag == Move.MoveFlag.EN_PASSANT) {
+            key ^= Zkey.piece[enemyColor][PieceType.PAWN.value][colorToMove == Color.WHITE ? to - 8 : to + 8];
+        }
+
+        if (moveFlag == Move.MoveFlag.CASTLING) {
+            if (to == Bitboard.BitIndex.G1_IDX.ordinal()) {
+                key ^= Zkey.piece[color][PieceType.ROOK.value][Bitboard.BitIndex.H1_IDX.ordinal()];
+                key ^= Zkey.piece[color][PieceType.ROOK.value][Bitboard.BitIndex.F1_IDX.ordinal()];
+            } else if (to == Bitboard.BitIndex.C1_IDX.ordinal()) {
+                key ^= Zkey.piece[color][PieceType.ROOK.value][Bitboard.BitIndex.A1_IDX.ordinal()];
+                key ^= Zkey.piece[color][PieceType.ROOK.value][Bitboard.BitIndex.D1_IDX.ordinal()];
+            } else if (to == Bitboard.BitIndex.G8_IDX.ordinal()) {
+                key ^= Zkey.piece[color][PieceType.ROOK.value][Bitboard.BitIndex.H8_IDX.ordinal()];
+                key ^= Zkey.piece[color][PieceType.ROOK.value][Bitboard.BitIndex.F8_IDX.ordinal()];
+            } else {
+                key ^= Zkey.piece[color][PieceType.ROOK.value][Bitboard.BitIndex.A8_IDX.ordinal()];
+                key ^= Zkey.piece[color][PieceType.ROOK.value][Bitboard.BitIndex.D8_IDX.ordinal()];
+            }
+        }
+
+        // same rule as in makeMove: an ep square is only set if an enemy pawn can capture
+        if (moveFlag == Move.MoveFlag.PAWN_START && isNeighborAnEnemyPawn(to, colorToMove)) {
+            newEpIndex = Bitboard.BIT_INDICES[colorToMove == Color.WHITE ? to - 8 : to + 8];
+        }
+
+        if (newEpIndex != epIndex) {
+            if (epIndex != Bitboard.BitIndex.NO_SQUARE) {
+                key ^= Zkey.epIndex[epIndex.ordinal()];
+            }
+
+            if (newEpIndex != Bitboard.BitIndex.NO_SQUARE) {
+                key ^= Zkey.epIndex[newEpIndex.ordinal()];
+            }
+        }
+
+        var newCastlingRights = castlingRights & Bitboard.CASTLING_RIGHTS[from] & Bitboard.CASTLING_RIGHTS[to];
+        if (newCastlingRights != castlingRights) {
+            key ^= Zkey.castlingRights[castlingRights];
+            key ^= Zkey.castlingRights[newCastlingRights];
+        }
+
+        return key;
+    }
+
     //-------------------------------------------------
     // Make / undo
     //-------------------------------------------------
@@ -505,8 +623,10 @@ public class Board {
      * @return Returns false if the {@link Move} is illegal; otherwise true.
      */
     public boolean makeMove(Move move) {
-        // store zkey
-        oldZkey = zkey;
+        // store the state which cannot be restored from the move itself, so that undo works at any depth
+        move.setPreviousZkey(zkey);
+        move.setPreviousEpIndex(epIndex);
+        move.setPreviousHalfMovesCounter(halfMovesCounter);
 
         if (move.getMoveFlag() == Move.MoveFlag.NORMAL) {
             movePiece(move.getFrom(), move.getTo(), move.getPiece().pieceType, colorToMove);
@@ -517,7 +637,6 @@ public class Board {
             xorPiece(colorToMoveValue, pieceTypeValue, move.getFrom());
             xorPiece(colorToMoveValue, pieceTypeValue, move.getTo());
 
-            oldEpIndex = epIndex;
             epIndex = Bitboard.BitIndex.NO_SQUARE;
         }
 
@@ -538,7 +657,6 @@ public class Board {
             addPiece(move.getTo(), PieceType.getBitboardNumber(move.getPromotedPieceType(), colorToMove));
             xorPiece(colorToMoveValue, move.getPromotedPieceType().value, move.getTo());
 
-            oldEpIndex = epIndex;
             epIndex = Bitboard.BitIndex.NO_SQUARE;
         }
 
@@ -562,7 +680,6 @@ public class Board {
             xorPiece(colorToMoveValue, pieceTypeValue, move.getFrom());
             xorPiece(colorToMoveValue, pieceTypeValue, move.getTo());
 
-            oldEpIndex = epIndex;
             epIndex = Bitboard.BitIndex.NO_SQUARE;
         }
 
@@ -608,7 +725,6 @@ public class Board {
             xorPiece(colorToMoveValue, PieceType.ROOK.value, rookOrigin.ordinal());
             xorPiece(colorToMoveValue, PieceType.ROOK.value, rookDestination.ordinal());
 
-            oldEpIndex = epIndex;
             epIndex = Bitboard.BitIndex.NO_SQUARE;
         }
 
@@ -620,14 +736,15 @@ public class Board {
             xorPiece(colorToMoveValue, pieceTypeValue, move.getFrom());
             xorPiece(colorToMoveValue, pieceTypeValue, move.getTo());
 
+            epIndex = Bitboard.BitIndex.NO_SQUARE;
+
             // check if there is a pawn on the left or on the right
             if (isNeighborAnEnemyPawn(move.getTo(), colorToMove)) {
                 // epIndex must be updated
-                oldEpIndex = epIndex;
                 if (colorToMove == Color.WHITE) {
-                    epIndex = Bitboard.BitIndex.values()[move.getTo() - 8];
+                    epIndex = Bitboard.BIT_INDICES[move.getTo() - 8];
                 } else {
-                    epIndex = Bitboard.BitIndex.values()[move.getTo() + 8];
+                    epIndex = Bitboard.BIT_INDICES[move.getTo() + 8];
                 }
             }
         }
@@ -643,7 +760,6 @@ public class Board {
             xorPiece(colorToMoveValue, pieceTypeValue, move.getFrom());
             xorPiece(colorToMoveValue, pieceTypeValue, move.getTo());
 
-            oldEpIndex = epIndex;
             epIndex = Bitboard.BitIndex.NO_SQUARE;
         }
 
@@ -661,6 +777,11 @@ public class Board {
         colorToMove = colorToMove.getEnemyColor();
         updateCommonBitboards();
 
+        // update the incremental attacks
+        if (attackTable != null) {
+            attackTable.update(getChangedSquares(move, oldColor));
+        }
+
         // update zkey (color, castling, epIndex)
         xorWhiteColorToMove();
 
@@ -669,9 +790,10 @@ public class Board {
             xorCastlingRights(castlingRights);
         }
 
-        if (oldEpIndex != epIndex) {
-            if (oldEpIndex != Bitboard.BitIndex.NO_SQUARE) {
-                xorEpIndex(oldEpIndex);
+        var previousEpIndex = move.getPreviousEpIndex();
+        if (previousEpIndex != epIndex) {
+            if (previousEpIndex != Bitboard.BitIndex.NO_SQUARE) {
+                xorEpIndex(previousEpIndex);
             }
 
             if (epIndex != Bitboard.BitIndex.NO_SQUARE) {
@@ -688,15 +810,13 @@ public class Board {
                 move.getMoveFlag() == Move.MoveFlag.CAPTURE ||
                 move.getMoveFlag() == Move.MoveFlag.PROMOTION_CAPTURE
         ) {
-            oldHalfMovesCounter = halfMovesCounter;
             halfMovesCounter = 0;
         } else {
-            oldHalfMovesCounter = halfMovesCounter;
             halfMovesCounter++;
         }
 
         // check if it was legal
-        if (Attack.isCheck(oldColor, this)) {
+        if (isCheck(oldColor)) {
             undoMove(move);
             return false; // return illegal move
         }
@@ -711,7 +831,7 @@ public class Board {
      */
     public void undoMove(Move move) {
         // undo Zobrist key
-        zkey = oldZkey;
+        zkey = move.getPreviousZkey();
 
         // switch side to move
         colorToMove = colorToMove.getEnemyColor();
@@ -722,13 +842,12 @@ public class Board {
         }
 
         // undo half moves counter
-        halfMovesCounter = oldHalfMovesCounter;
+        halfMovesCounter = move.getPreviousHalfMovesCounter();
 
         if (move.getMoveFlag() == Move.MoveFlag.NORMAL) {
             movePiece(move.getTo(), move.getFrom(), move.getPiece().pieceType, colorToMove);
 
-            epIndex = oldEpIndex;
-            oldEpIndex = Bitboard.BitIndex.NO_SQUARE;
+            epIndex = move.getPreviousEpIndex();
         }
 
         if (move.getMoveFlag() == Move.MoveFlag.PROMOTION || move.getMoveFlag() == Move.MoveFlag.PROMOTION_CAPTURE) {
@@ -739,8 +858,7 @@ public class Board {
             removePiece(move.getTo(), PieceType.getBitboardNumber(move.getPromotedPieceType(), colorToMove));
             addPiece(move.getFrom(), PieceType.getBitboardNumber(PieceType.PAWN, colorToMove));
 
-            epIndex = oldEpIndex;
-            oldEpIndex = Bitboard.BitIndex.NO_SQUARE;
+            epIndex = move.getPreviousEpIndex();
         }
 
         if (move.getMoveFlag() == Move.MoveFlag.EN_PASSANT) {
@@ -757,8 +875,7 @@ public class Board {
             // move own pawn back
             movePiece(move.getTo(), move.getFrom(), move.getPiece().pieceType, colorToMove);
 
-            epIndex = oldEpIndex;
-            oldEpIndex = Bitboard.BitIndex.NO_SQUARE;
+            epIndex = move.getPreviousEpIndex();
         }
 
         if (move.getMoveFlag() == Move.MoveFlag.CASTLING) {
@@ -795,22 +912,20 @@ public class Board {
             // rook
             movePiece(rookDestination.ordinal(), rookOrigin.ordinal(), PieceType.ROOK, colorToMove);
 
-            epIndex = oldEpIndex;
-            oldEpIndex = Bitboard.BitIndex.NO_SQUARE;
+            epIndex = move.getPreviousEpIndex();
         }
 
         if (move.getMoveFlag() == Move.MoveFlag.PAWN_START) {
             movePiece(move.getTo(), move.getFrom(), move.getPiece().pieceType, colorToMove);
 
-            epIndex = oldEpIndex;
+            epIndex = move.getPreviousEpIndex();
         }
 
         if (move.getMoveFlag() == Move.MoveFlag.CAPTURE) {
             movePiece(move.getTo(), move.getFrom(), move.getPiece().pieceType, colorToMove);
             addPiece(move.getTo(), PieceType.getBitboardNumber(move.getCapturedPieceType(), colorToMove.getEnemyColor()));
 
-            epIndex = oldEpIndex;
-            oldEpIndex = Bitboard.BitIndex.NO_SQUARE;
+            epIndex = move.getPreviousEpIndex();
         }
 
         // undo previous castling rights
@@ -818,6 +933,52 @@ public class Board {
 
         // update bitboards
         updateCommonBitboards();
+
+        // update the incremental attacks
+        if (attackTable != null) {
+            attackTable.update(getChangedSquares(move, colorToMove));
+        }
+    }
+
+    /**
+     * Passes the turn to the enemy without moving a piece, e.g. for the null move pruning of a {@link Search}.
+     * Only the color to move, the En Passant square, the half move counter and the Zobrist key are changed.
+     *
+     * @return The state for {@link #undoNullMove(int)}: the previous En Passant square and half move counter.
+     */
+    public int makeNullMove() {
+        var state = epIndex.ordinal() | (halfMovesCounter << 7);
+
+        if (epIndex != Bitboard.BitIndex.NO_SQUARE) {
+            xorEpIndex(epIndex);
+            epIndex = Bitboard.BitIndex.NO_SQUARE;
+        }
+
+        movesCounter += colorToMove.value;
+        halfMovesCounter++;
+
+        colorToMove = colorToMove.getEnemyColor();
+        xorWhiteColorToMove();
+
+        return state;
+    }
+
+    /**
+     * Restores a null move.
+     *
+     * @param state The value returned by {@link #makeNullMove()}.
+     */
+    public void undoNullMove(int state) {
+        colorToMove = colorToMove.getEnemyColor();
+        xorWhiteColorToMove();
+
+        movesCounter -= colorToMove.value;
+        halfMovesCounter = state >>> 7;
+
+        epIndex = Bitboard.BIT_INDICES[state & 127];
+        if (epIndex != Bitboard.BitIndex.NO_SQUARE) {
+            xorEpIndex(epIndex);
+        }
     }
 
     //-------------------------------------------------
@@ -859,6 +1020,37 @@ public class Board {
         bitboards[bitboardNr] &= ~(Bitboard.SQUARES[bitIndex]);
     }
 
+    /**
+     * Get all squares whose occupation is changed by a {@link Move}.
+     *
+     * @param move {@link Move}
+     * @param color The {@link Color} of the moving side.
+     *
+     * @return A bitboard with the changed squares.
+     */
+    private long getChangedSquares(Move move, Color color) {
+        var changedSquares = Bitboard.SQUARES[move.getFrom()] | Bitboard.SQUARES[move.getTo()];
+
+        if (move.getMoveFlag() == Move.MoveFlag.EN_PASSANT) {
+            changedSquares |= Bitboard.SQUARES[color == Color.WHITE ? move.getTo() - 8 : move.getTo() + 8];
+        }
+
+        if (move.getMoveFlag() == Move.MoveFlag.CASTLING) {
+            // the rook origin and destination
+            if (move.getTo() == Bitboard.BitIndex.G1_IDX.ordinal()) {
+                changedSquares |= Bitboard.H1 | Bitboard.F1;
+            } else if (move.getTo() == Bitboard.BitIndex.C1_IDX.ordinal()) {
+                changedSquares |= Bitboard.A1 | Bitboard.D1;
+            } else if (move.getTo() == Bitboard.BitIndex.G8_IDX.ordinal()) {
+                changedSquares |= Bitboard.H8 | Bitboard.F8;
+            } else {
+                changedSquares |= Bitboard.A8 | Bitboard.D8;
+            }
+        }
+
+        return changedSquares;
+    }
+
     //-------------------------------------------------
     // Parse move
     //-------------------------------------------------
@@ -919,40 +1111,182 @@ public class Board {
                 Bitboard.Rank.values()[toRank]
         ).ordinal();
 
-        // generate moves list
-        var moveGenerator = new MoveGenerator(this);
-        moveGenerator.generatePseudoLegalMoves();
-
-        // filter moves list
-        List<Move> moves = null;
-        if (userInput.length() == 4) {
-            moves = moveGenerator.filterPseudoLegalMovesBy(fromValue, toValue);
-        } else if (userInput.length() == 5) {
+        // get promoted piece type
+        var promotedPieceType = PieceType.NO_PIECE;
+        if (userInput.length() == 5) {
             var promotedPiece = userInput.charAt(4);
             switch (promotedPiece) {
                 case 'q':
-                    moves = moveGenerator.filterPseudoLegalMovesBy(fromValue, toValue, PieceType.QUEEN);
+                    promotedPieceType = PieceType.QUEEN;
                     break;
                 case 'n':
-                    moves = moveGenerator.filterPseudoLegalMovesBy(fromValue, toValue, PieceType.KNIGHT);
+                    promotedPieceType = PieceType.KNIGHT;
                     break;
                 case 'b':
-                    moves = moveGenerator.filterPseudoLegalMovesBy(fromValue, toValue, PieceType.BISHOP);
+                    promotedPieceType = PieceType.BISHOP;
                     break;
                 case 'r':
-                    moves = moveGenerator.filterPseudoLegalMovesBy(fromValue, toValue, PieceType.ROOK);
+                    promotedPieceType = PieceType.ROOK;
                     break;
                 default:
                     System.out.println("Invalid char for promoted piece given.");
                     return null;
             }
+        } else if (userInput.length() != 4) {
+            return null;
+        }
+
+        return decodeMove(fromValue, toValue, promotedPieceType);
+    }
+
+    /**
+     * Creates the pseudo legal {@link Move} for the given squares without generating all moves.
+     * Piece, flag and captured piece are derived from the board and only the moving piece is validated.
+     *
+     * @param fromValue The from square bit index value.
+     * @param toValue The target square bit index value.
+     * @param promotedPieceType The {@link PieceType} to promote to or {@link PieceType#NO_PIECE}.
+     *
+     * @return A {@link Move} or null if the squares do not form a pseudo legal move.
+     */
+    private Move decodeMove(int fromValue, int toValue, PieceType promotedPieceType) {
+        var piece = getPieceFrom(Bitboard.BIT_INDICES[fromValue]);
+        if (piece.color != colorToMove) {
+            return null;
+        }
+
+        var capturedPiece = getPieceFrom(Bitboard.BIT_INDICES[toValue]);
+        if (capturedPiece.color == colorToMove) {
+            return null;
+        }
+
+        var move = new Move(piece, Bitboard.BIT_INDICES[fromValue], Bitboard.BIT_INDICES[toValue]);
+        var isCapture = capturedPiece != Piece.NO_PIECE;
+        var toBitboard = Bitboard.SQUARES[toValue];
+
+        if (piece.pieceType == PieceType.PAWN) {
+            var forward = colorToMove == Color.WHITE ? 8 : -8;
+            var isPromotion = (toBitboard & (Bitboard.MASK_RANK_8 | Bitboard.MASK_RANK_1)) != 0;
+
+            // a pawn move to the last rank needs a promoted piece
+            if (isPromotion == (promotedPieceType == PieceType.NO_PIECE)) {
+                return null;
+            }
+
+            if (toValue == fromValue + forward && !isCapture) {
+                move.setMoveFlag(isPromotion ? Move.MoveFlag.PROMOTION : Move.MoveFlag.NORMAL);
+            } else if (toValue == fromValue + 2 * forward && !isCapture) {
+                var startRank = colorToMove == Color.WHITE ? Bitboard.MASK_RANK_2 : Bitboard.MASK_RANK_7;
+                if ((Bitboard.SQUARES[fromValue] & startRank) == 0 || (Bitboard.SQUARES[fromValue + forward] & getAllPieces()) != 0) {
+                    return null;
+                }
+
+                move.setMoveFlag(Move.MoveFlag.PAWN_START);
+            } else if ((Attack.getPawnAttacks(colorToMove, fromValue) & toBitboard) != 0) {
+                if (isCapture) {
+                    move.setMoveFlag(isPromotion ? Move.MoveFlag.PROMOTION_CAPTURE : Move.MoveFlag.CAPTURE);
+                    move.setCapturedPieceType(capturedPiece.pieceType);
+                } else if (toValue == epIndex.ordinal()) {
+                    move.setMoveFlag(Move.MoveFlag.EN_PASSANT);
+                    move.setCapturedPieceType(PieceType.PAWN);
+                } else {
+                    return null;
+                }
+            } else {
+                return null;
+            }
+
+            if (isPromotion) {
+                move.setPromotedPieceType(promotedPieceType);
+            }
+
+            return move;
+        }
+
+        if (promotedPieceType != PieceType.NO_PIECE) {
+            return null;
+        }
+
+        if (piece.pieceType == PieceType.KING && Math.abs(toValue - fromValue) == 2) {
+            if (!isCastlingPossible(fromValue, toValue)) {
+                return null;
+            }
+
+            move.setMoveFlag(Move.MoveFlag.CASTLING);
+
+            return move;
+        }
+
+        var attacks = 0L;
+        switch (piece.pieceType) {
+            case KNIGHT:
+                attacks = Attack.getKnightMoves(fromValue);
+                break;
+            case BISHOP:
+                attacks = Attack.getBishopMoves(fromValue, getAllPieces());
+                break;
+            case ROOK:
+                attacks = Attack.getRookMoves(fromValue, getAllPieces());
+                break;
+            case QUEEN:
+                attacks = Attack.getBishopMoves(fromValue, getAllPieces()) | Attack.getRookMoves(fromValue, getAllPieces());
+                break;
+            case KING:
+                attacks = Attack.getKingMoves(fromValue);
+                break;
+            default:
+        }
+
+        if ((attacks & toBitboard) == 0) {
+            return null;
         }
 
-        if (moves != null && !moves.isEmpty()) {
-            return moves.get(0);
+        if (isCapture) {
+            move.setMoveFlag(Move.MoveFlag.CAPTURE);
+            move.setCapturedPieceType(capturedPiece.pieceType);
         }
 
-        return null;
+        return move;
+    }
+
+    /**
+     * Checks whether the color to move can castle with the given king squares.
+     *
+     * @param fromValue The king from square bit index value.
+     * @param toValue The king target square bit index value.
+     *
+     * @return boolean
+     */
+    private boolean isCastlingPossible(int fromValue, int toValue) {
+        var white = colorToMove == Color.WHITE;
+        if (fromValue != (white ? Bitboard.BitIndex.E1_IDX : Bitboard.BitIndex.E8_IDX).ordinal()) {
+            return false;
+        }
+
+        var kingSide = toValue > fromValue;
+        if (kingSide ? !isKingSideCastlingAllowed(colorToMove) : !isQueenSideCastlingAllowed(colorToMove)) {
+            return false;
+        }
+
+        // the squares between the rook and the king must be free
+        long bitboardToBeFree;
+        if (kingSide) {
+            bitboardToBeFree = white ? Bitboard.F1 | Bitboard.G1 : Bitboard.F8 | Bitboard.G8;
+        } else {
+            bitboardToBeFree = white ? Bitboard.B1 | Bitboard.C1 | Bitboard.D1 : Bitboard.B8 | Bitboard.C8 | Bitboard.D8;
+        }
+
+        if ((bitboardToBeFree & getAllPieces()) != 0) {
+            return false;
+        }
+
+        // the king must not start, pass or end on an attacked square
+        var passValue = (fromValue + toValue) / 2;
+
+        return !Attack.areOneOrMoreSquaresAttacked(
+                colorToMove, this,
+                Bitboard.BIT_INDICES[fromValue], Bitboard.BIT_INDICES[passValue], Bitboard.BIT_INDICES[toValue]
+        );
     }
 
     //-------------------------------------------------
@@ -1297,20 +1631,17 @@ public class Board {
 
         // move counter
         halfMovesCounter = 0;
-        oldHalfMovesCounter = 0;
 
         movesCounter = 1;
 
         if (fenFields.length == 6) {
             halfMovesCounter = Integer.parseInt(fenFields[4]);
-            oldHalfMovesCounter = halfMovesCounter;
 
             movesCounter = Integer.parseInt(fenFields[5]);
         }
 
         // create Zobrist key
         Zkey.createKey(this);
-        oldZkey = zkey;
     }
 
     /**
@@ -0,0 +1,213 @@
+/*
+ * This file is part of the SgChess project.
+ * Copyright (c) 2021 stwe <https://github.com/stwe/SgChess>
+ * License: GNU GPLv2
+ */
+
+import java.util.Objects;
+
+/**
+ * Represents a CheckInfo object.
+ * Checkers, pins, discovered check candidates and check squares of a position, computed once per node
+ * and then shared by all moves of the node. The {@link Search} keeps one per ply and asks it
+ * whether a move gives check before the move is made.
+ */
+public class CheckInfo {
+
+    //-------------------------------------------------
+    // Member
+    //-------------------------------------------------
+
+    /**
+     * The enemy pieces giving check to the king of the color to move.
+     */
+    private long checkers;
+
+    /**
+     * The pinned pieces of each color, indexed by {@link Board.Color} value.
+     */
+    private final long[] pinnedPieces = new long[2];
+
+    /**
+     * The pieces of the color to move that can give a discovered check.
+     */
+    private long discoveredCheckCandidates;
+
+    /**
+     * The squares from which a piece of the color to move gives check, indexed by {@link PieceType} value.
+     */
+    private final long[] checkSquares = new long[7];
+
+    /**
+     * The bit index value of the enemy king.
+     */
+    private int enemyKingBitIndex;
+
+    //-------------------------------------------------
+    // Update
+    //-------------------------------------------------
+
+    /**
+     * Recomputes all members for the current position of the given {@link Board}.
+     *
+     * @param board A {@link Board} object.
+     */
+    public void update(Board board) {
+        Objects.requireNonNull(board, "board must not be null");
+
+        var colorToMove = board.getColorToMove();
+        var enemyColor = colorToMove.getEnemyColor();
+
+        checkers = Attack.getCheckers(colorToMove, board);
+        pinnedPieces[Board.Color.WHITE.value] = Attack.getPinnedPieces(Board.Color.WHITE, board);
+        pinnedPieces[Board.Color.BLACK.value] = Attack.getPinnedPieces(Board.Color.BLACK, board);
+        discoveredCheckCandidates = Attack.getDiscoveredCheckCandidates(colorToMove, board);
+
+        enemyKingBitIndex = Long.numberOfTrailingZeros(board.getKing(enemyColor));
+        var allPieces = board.getAllPieces();
+
+        // an own pawn checks from the squares an enemy pawn on the king square would attack
+        checkSquares[PieceType.PAWN.value] = Attack.getPawnAttacks(enemyColor, enemyKingBitIndex);
+        checkSquares[PieceType.KNIGHT.value] = Attack.getKnightMoves(enemyKingBitIndex);
+        checkSquares[PieceType.BISHOP.value] = Attack.getBishopMoves(enemyKingBitIndex, allPieces);
+        checkSquares[PieceType.ROOK.value] = Attack.getRookMoves(enemyKingBitIndex, allPieces);
+        checkSquares[PieceType.QUEEN.value] = checkSquares[PieceType.BISHOP.value] | checkSquares[PieceType.ROOK.value];
+        checkSquares[PieceType.KING.value] = 0L;
+    }
+
+    //-------------------------------------------------
+    // Getter
+    //-------------------------------------------------
+
+    /**
+     * Get the enemy pieces giving check to the king of the color to move.
+     *
+     * @return The bitboard with all checkers.
+     */
+    public long getCheckers() {
+        return checkers;
+    }
+
+    /**
+     * Checks whether the color to move is in check.
+     *
+     * @return boolean
+     */
+    public boolean isCheck() {
+        return checkers != 0;
+    }
+
+    /**
+     * Checks whether the color to move is in double check. Only a king move can help.
+     *
+     * @return boolean
+     */
+    public boolean isDoubleCheck() {
+        return (checkers & (checkers - 1)) != 0;
+    }
+
+    /**
+     * Get the pinned pieces of the given {@link Board.Color}.
+     *
+     * @param color A white or black {@link Board.Color}.
+     *
+     * @return The bitboard with the pinned pieces.
+     */
+    public long getPinnedPieces(Board.Color color) {
+        return pinnedPieces[color.value];
+    }
+
+    /**
+     * Get the pieces of the color to move that can give a discovered check.
+     *
+     * @return The bitboard with the discovered check candidates.
+     */
+    public long getDiscoveredCheckCandidates() {
+        return discoveredCheckCandidates;
+    }
+
+    /**
+     * Get the squares from which a piece of the color to move gives check.
+     *
+     * @param pieceType A {@link PieceType}.
+     *
+     * @return The bitboard with the check squares.
+     */
+    public long getCheckSquares(PieceType pieceType) {
+        return checkSquares[pieceType.value];
+    }
+
+    //-------------------------------------------------
+    // Gives check
+    //-------------------------------------------------
+
+    /**
+     * Checks whether a pseudo legal {@link Move} of the color to move gives check, without making the move.
+     * The {@link CheckInfo} must have been updated for the current position of the {@link Board}.
+     *
+     * @param move A pseudo legal {@link Move}.
+     * @param board The {@link Board} this {@link CheckInfo} was updated with.
+     *
+     * @return boolean
+     */
+    public boolean givesCheck(Move move, Board board) {
+        var from = move.getFrom();
+        var to = move.getTo();
+        var toBitboard = Bitboard.SQUARES[to];
+
+        // direct check
+        if ((checkSquares[move.getPiece().pieceType.value] & toBitboard) != 0) {
+            return true;
+        }
+
+        // discovered check: the moving piece leaves the line between an own slider and the enemy king
+        if ((discoveredCheckCandidates & Bitboard.SQUARES[from]) != 0 && !Attack.areAligned(from, to, enemyKingBitIndex)) {
+            return true;
+        }
+
+        var flag = move.getMoveFlag();
+        var enemyKing = Bitboard.SQUARES[enemyKingBitIndex];
+
+        if (flag == Move.MoveFlag.PROMOTION || flag == Move.MoveFlag.PROMOTION_CAPTURE) {
+            // the promoted piece may look through the square of the pawn
+            var occupied = board.getAllPieces() ^ Bitboard.SQUARES[from];
+
+            switch (move.getPromotedPieceType()) {
+                case KNIGHT:
+                    return (Attack.getKnightMoves(to) & enemyKing) != 0;
+                case BISHOP:
+                    return (Attack.getBishopMoves(to, occupied) & enemyKing) != 0;
+                case ROOK:
+                    return (Attack.getRookMoves(to, occupied) & enemyKing) != 0;
+                case QUEEN:
+                    return ((Attack.getBishopMoves(to, occupied) | Attack.getRookMoves(to, occupied)) & enemyKing) != 0;
+                default:
+                    return false;
+            }
+        }
+
+        if (flag == Move.MoveFlag.EN_PASSANT) {
+            // the captured pawn may be the only blocker of an own slider
+            var color = board.getColorToMove();
+            var capturedBitIndex = color == Board.Color.WHITE ? to - 8 : to + 8;
+            var occupied = (board.getAllPieces() ^ Bitboard.SQUARES[from] ^ Bitboard.SQUARES[capturedBitIndex]) | toBitboard;
+            var queens = board.getQueens(color);
+
+            return (Attack.getRookMoves(enemyKingBitIndex, occupied) & (board.getRooks(color) | queens)) != 0 ||
+                    (Attack.getBishopMoves(enemyKingBitIndex, occupied) & (board.getBishops(color) | queens)) != 0;
+        }
+
+        if (flag == Move.MoveFlag.CASTLING) {
+            // only the rook can give check; kingside castling moves the rook from h to f, queenside from a to d
+            var kingside = to > from;
+            var rookFrom = kingside ? from + 3 : from - 4;
+            var rookTo = kingside ? from + 1 : from - 1;
+            var occupied = (board.getAllPieces() ^ Bitboard.SQUARES[from] ^ Bitboard.SQUARES[rookFrom]) |
+                    toBitboard | Bitboard.SQUARES[rookTo];
+
+            return (Attack.getRookMoves(rookTo, occupied) & enemyKing) != 0;
+        }
+
+        return false;
+    }
+}
@@ -12,6 +12,16 @@ import java.util.Scanner;
  */
 public class Client {
 
+    //-------------------------------------------------
+    // Member
+    //-------------------------------------------------
+
+    /**
+     * The {@link TranspositionTable} of the game; it is kept between the searches, so that every search
+     * starts with the entries of the previous ones.
+     */
+    private static TranspositionTable transpositionTable;
+
     //-------------------------------------------------
     // Run
     //-------------------------------------------------
@@ -26,6 +36,8 @@ public class Client {
         // title
         System.out.println(Config.TITLE);
 
+        transpositionTable = new TranspositionTable(Config.HASH_SIZE);
+
         // setup board to start position
         var board = new Board("8/6RR/1k6/8/8/8/8/3K4 w - - 0 1");
 
@@ -142,7 +154,7 @@ public class Client {
     }
 
     private static SearchResult search(Board board) {
-        var bestMoveSearch = new Search(board);
-        return bestMoveSearch.minimaxRoot(4);
+        var bestMoveSearch = new LazySmp(board, transpositionTable, Config.THREADS);
+        return bestMoveSearch.search(Config.SEARCH_DEPTH, Config.SEARCH_TIME, 0);
     }
 }
@@ -11,4 +11,30 @@ public class Config {
     public static String WHITE_PIECE_COLOR = "\u001B[38;5;15m";
     public static String BLACK_PIECE_COLOR = "\u001B[38;5;226m";
     public static String SQUARE_ATTACKED_BG_COLOR = "\u001B[48;5;196m";
+    public static int SEARCH_DEPTH = 7;
+    public static int SEARCH_TIME = 5000;
+    public static int HASH_SIZE = 64;
+    public static int THREADS = 1;
+    public static boolean QUIESCENCE = true;
+    public static boolean QUIESCENCE_CHECK_EVASIONS = false;
+    public static int DELTA_MARGIN = 200;
+    public static boolean NULL_MOVE_PRUNING = true;
+    public static int NULL_MOVE_REDUCTION = 3;
+    public static int NULL_MOVE_VERIFICATION_DEPTH = 10;
+    public static boolean LATE_MOVE_REDUCTIONS = true;
+    public static int ASPIRATION_WINDOW = 25;
+    public static boolean FRONTIER_PRUNING = true;
+    public static int REVERSE_FUTILITY_MARGIN = 120;
+    public static int RAZORING_MARGIN = 300;
+    public static int FUTILITY_MARGIN = 150;
+    public static int LATE_MOVE_PRUNING_BASE = 3;
+    public static boolean SEE_PRUNING = true;
+    public static int SEE_QUIET_MARGIN = 50;
+    public static boolean PROBCUT = true;
+    public static int PROBCUT_MARGIN = 200;
+    public static boolean SINGULAR_EXTENSIONS = true;
+    public static int SINGULAR_MARGIN = 2;
+    public static int SINGULAR_MIN_DEPTH = 6;
+    public static Search.InternalIterative INTERNAL_ITERATIVE = Search.InternalIterative.IID;
+    public static boolean CHECK_EXTENSIONS = true;
 }
@@ -68,6 +68,16 @@ public class ConfigLoader {
             return Double.parseDouble(value);
         }
 
+        if (type.isEnum()) {
+            for (var constant : type.getEnumConstants()) {
+                if (((Enum<?>) constant).name().equals(value)) {
+                    return constant;
+                }
+            }
+
+            throw new RuntimeException("Invalid configuration value " + value + " for " + name + ".");
+        }
+
         throw new RuntimeException("Unknown configuration value type: " + type.getName());
     }
 }
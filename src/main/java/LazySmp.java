@@ -0,0 +1,148 @@
+/*
+ * This file is part of the SgChess project.
+ * Copyright (c) 2021 stwe <https://github.com/stwe/SgChess>
+ * License: GNU GPLv2
+ */
+
+import java.util.ArrayList;
+import java.util.Objects;
+
+/**
+ * Represents a LazySmp object.
+ * A multi-threaded search: helper threads search the same root position with their own
+ * {@link Board} copy and {@link Evaluation} at staggered depths. All threads share one
+ * {@link TranspositionTable}, so the helpers fill it with results the main thread can use.
+ */
+public class LazySmp {
+
+    //-------------------------------------------------
+    // Member
+    //-------------------------------------------------
+
+    /**
+     * The root position; it is never changed by the search.
+     */
+    private final Board board;
+
+    /**
+     * The {@link TranspositionTable} shared by all threads.
+     */
+    private final TranspositionTable transpositionTable;
+
+    /**
+     * The number of threads including the main thread.
+     */
+    private final int threads;
+
+    /**
+     * The {@link Search} of the main thread while a search is running.
+     */
+    private volatile Search main;
+
+    /**
+     * Set by {@link #stop()}; never cleared, so that a stop before the main {@link Search} exists is not lost.
+     */
+    private volatile boolean stopRequested;
+
+    //-------------------------------------------------
+    // Ctors.
+    //-------------------------------------------------
+
+    /**
+     * Constructs a new {@link LazySmp} object.
+     *
+     * @param board The root position.
+     * @param transpositionTable The shared {@link TranspositionTable}.
+     * @param threads The number of threads including the main thread.
+     */
+    public LazySmp(Board board, TranspositionTable transpositionTable, int threads) {
+        this.board = Objects.requireNonNull(board, "board must not be null");
+        this.transpositionTable = Objects.requireNonNull(transpositionTable, "transpositionTable must not be null");
+
+        if (threads <= 0) {
+            throw new RuntimeException("Invalid number of threads " + threads + ".");
+        }
+
+        this.threads = threads;
+    }
+
+    //-------------------------------------------------
+    // Search
+    //-------------------------------------------------
+
+    /**
+     * Runs the search. The budgets apply to the main thread, whose last completed iteration is returned;
+     * the helpers are stopped when the main thread is done.
+     *
+     * @param maxDepth The maximum search depth.
+     * @param timeLimit The wall-clock budget in milliseconds or 0 for no limit.
+     * @param nodeLimit The node budget of the main thread or 0 for no limit.
+     *
+     * @return The {@link SearchResult} of the main thread with the nodes of all threads.
+     */
+    public SearchResult search(int maxDepth, long timeLimit, long nodeLimit) {
+        transpositionTable.newSearch();
+
+        var helpers = new ArrayList<Search>();
+        var helperThreads = new ArrayList<Thread>();
+
+        for (var i = 1; i < threads; i++) {
+            var helper = new Search(new Board(board), transpositionTable);
+            helpers.add(helper);
+
+            // odd helpers start one ply deeper, so that the threads do not all search the same depth
+            var startDepth = Math.min(1 + (i & 1), maxDepth);
+            var thread = new Thread(() -> helper.iterativeDeepening(startDepth, maxDepth, 0, 0), "SgChess helper " + i);
+            thread.setDaemon(true);
+            helperThreads.add(thread);
+            thread.start();
+        }
+
+        var main = new Search(new Board(board), transpositionTable);
+        this.main = main;
+
+        // a stop between the creation of the main search and the assignment above
+        if (stopRequested) {
+            main.stop();
+        }
+
+        var result = main.iterativeDeepening(1, maxDepth, timeLimit, nodeLimit);
+
+        for (var helper : helpers) {
+            helper.stop();
+        }
+
+        var nodes = main.getNodes();
+
+        for (var i = 0; i < helperThreads.size(); i++) {
+            try {
+                helperThreads.get(i).join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for the helper threads.", e);
+            }
+
+            nodes += helpers.get(i).getNodes();
+        }
+
+        if (result != null) {
+            result.nodes = nodes;
+        }
+
+        return result;
+    }
+
+    /**
+     * Requests the running search to stop. The main thread completes its first iteration and returns
+     * its last completed iteration; the helpers are stopped when the main thread is done.
+     * Can be called from any thread.
+     */
+    public void stop() {
+        stopRequested = true;
+
+        var currentMain = main;
+        if (currentMain != null) {
+            currentMain.stop();
+        }
+    }
+}
@@ -26,6 +26,18 @@ public class Move {
         PROMOTION_CAPTURE
     }
 
+    //-------------------------------------------------
+    // Constants
+    //-------------------------------------------------
+
+    // the values() methods of the enums copy the array on each call
+
+    private static final MoveFlag[] MOVE_FLAGS = MoveFlag.values();
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private static final Piece[] PIECES = Piece.values();
+
     //-------------------------------------------------
     // Member
     //-------------------------------------------------
@@ -68,6 +80,21 @@ public class Move {
      */
     private int score;
 
+    /**
+     * The Zobrist key of the position before this move was made; restored by undo.
+     */
+    private long previousZkey;
+
+    /**
+     * The en passant square before this move was made; restored by undo.
+     */
+    private Bitboard.BitIndex previousEpIndex = Bitboard.BitIndex.NO_SQUARE;
+
+    /**
+     * The half moves counter before this move was made; restored by undo.
+     */
+    private int previousHalfMovesCounter;
+
     //-------------------------------------------------
     // Getter
     //-------------------------------------------------
@@ -163,7 +190,7 @@ public class Move {
      * @return A {@link PieceType} object.
      */
     public PieceType getCapturedPieceType() {
-        return PieceType.values()[getCapturedPieceTypeValue()];
+        return PIECE_TYPES[getCapturedPieceTypeValue()];
     }
 
     /**
@@ -195,7 +222,7 @@ public class Move {
      * @return A {@link PieceType} object.
      */
     public PieceType getPromotedPieceType() {
-        return PieceType.values()[getPromotedPieceTypeValue()];
+        return PIECE_TYPES[getPromotedPieceTypeValue()];
     }
 
     /**
@@ -231,7 +258,7 @@ public class Move {
      * @return A {@link MoveFlag} object.
      */
     public MoveFlag getMoveFlag() {
-        return MoveFlag.values()[getMoveFlagValue()];
+        return MOVE_FLAGS[getMoveFlagValue()];
     }
 
     /**
@@ -267,7 +294,7 @@ public class Move {
      * @return A {@link Piece} object.
      */
     public Piece getPiece() {
-        return Piece.values()[getPieceValue()];
+        return PIECES[getPieceValue()];
     }
 
     /**
@@ -303,6 +330,97 @@ public class Move {
         move |= (castlingRights & 15) << 25;
     }
 
+    //-------------------------------------------------
+    // Packed move
+    //-------------------------------------------------
+
+    /**
+     * Get the packed integer with all move data (see {@link #move}).
+     * A {@link Move} created from it with {@link #Move(int)} can be made on the same position.
+     *
+     * @return The packed move.
+     */
+    public int getPackedMove() {
+        return move;
+    }
+
+    //-------------------------------------------------
+    // Short move
+    //-------------------------------------------------
+
+    /**
+     * Get the 16 bit short move with from, to and promoted piece type.
+     * This is enough to identify a move among the pseudo legal moves of a position.
+     *
+     * <p>bit  0 -  5: <b>from</b> square</p>
+     * <p>bit  6 - 11: <b>to</b> square</p>
+     * <p>bit 12 - 14: <b>promoted piece type</b></p>
+     *
+     * @return The short move; never 0.
+     */
+    public int getShortMove() {
+        // same layout as the first 12 bits of the packed move
+        return (move & 4095) | (getPromotedPieceTypeValue() << 12);
+    }
+
+    //-------------------------------------------------
+    // Undo information
+    //-------------------------------------------------
+
+    /**
+     * Get {@link #previousZkey}.
+     *
+     * @return {@link #previousZkey}
+     */
+    public long getPreviousZkey() {
+        return previousZkey;
+    }
+
+    /**
+     * Set {@link #previousZkey}.
+     *
+     * @param previousZkey The Zobrist key before this move was made.
+     */
+    public void setPreviousZkey(long previousZkey) {
+        this.previousZkey = previousZkey;
+    }
+
+    /**
+     * Get {@link #previousEpIndex}.
+     *
+     * @return {@link #previousEpIndex}
+     */
+    public Bitboard.BitIndex getPreviousEpIndex() {
+        return previousEpIndex;
+    }
+
+    /**
+     * Set {@link #previousEpIndex}.
+     *
+     * @param previousEpIndex The en passant square before this move was made.
+     */
+    public void setPreviousEpIndex(Bitboard.BitIndex previousEpIndex) {
+        this.previousEpIndex = previousEpIndex;
+    }
+
+    /**
+     * Get {@link #previousHalfMovesCounter}.
+     *
+     * @return {@link #previousHalfMovesCounter}
+     */
+    public int getPreviousHalfMovesCounter() {
+        return previousHalfMovesCounter;
+    }
+
+    /**
+     * Set {@link #previousHalfMovesCounter}.
+     *
+     * @param previousHalfMovesCounter The half moves counter before this move was made.
+     */
+    public void setPreviousHalfMovesCounter(int previousHalfMovesCounter) {
+        this.previousHalfMovesCounter = previousHalfMovesCounter;
+    }
+
     //-------------------------------------------------
     // Ctors.
     //-------------------------------------------------
@@ -320,6 +438,35 @@ public class Move {
         setTo(to);
     }
 
+    /**
+     * Constructs a new {@link Move} object from a packed move.
+     *
+     * @param packedMove A packed move (see {@link #getPackedMove()}).
+     */
+    public Move(int packedMove) {
+        this.move = packedMove;
+    }
+
+    //-------------------------------------------------
+    // Reuse
+    //-------------------------------------------------
+
+    /**
+     * Overwrites this {@link Move} with a new move, so that preallocated objects can be reused.
+     * All other move data and the score are cleared.
+     *
+     * @param piece The {@link Piece} of this move.
+     * @param from The from square {@link Bitboard.BitIndex}.
+     * @param to The target square {@link Bitboard.BitIndex}.
+     */
+    public void reset(Piece piece, Bitboard.BitIndex from, Bitboard.BitIndex to) {
+        move = 0;
+        score = 0;
+        setPiece(piece);
+        setFrom(from);
+        setTo(to);
+    }
+
     //-------------------------------------------------
     // Print
     //-------------------------------------------------
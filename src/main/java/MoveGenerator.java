@@ -30,6 +30,16 @@ public class MoveGenerator {
      */
     private final ArrayList<Move> pseudoLegalMoves = new ArrayList<>();
 
+    /**
+     * Preallocated {@link Move} objects that are overwritten instead of filling {@link #pseudoLegalMoves}; or null.
+     */
+    private final Move[] moveBuffer;
+
+    /**
+     * The number of moves generated into the {@link #moveBuffer}.
+     */
+    private int moveCount;
+
     //-------------------------------------------------
     // Ctors.
     //-------------------------------------------------
@@ -41,6 +51,20 @@ public class MoveGenerator {
      */
     public MoveGenerator(Board board) {
         this.board = Objects.requireNonNull(board, "board must not be null");
+        this.moveBuffer = null;
+    }
+
+    /**
+     * Constructs a new {@link MoveGenerator} object that generates into preallocated {@link Move} objects.
+     * Each call of {@link #generatePseudoLegalMoves()} overwrites the moves of the previous call,
+     * so that a search does not allocate per node.
+     *
+     * @param board The parent {@link Board} object.
+     * @param moveBuffer {@link Move} objects for at least all pseudo legal moves of a position.
+     */
+    public MoveGenerator(Board board, Move[] moveBuffer) {
+        this.board = Objects.requireNonNull(board, "board must not be null");
+        this.moveBuffer = Objects.requireNonNull(moveBuffer, "moveBuffer must not be null");
     }
 
     //-------------------------------------------------
@@ -65,6 +89,15 @@ public class MoveGenerator {
         return pseudoLegalMoves;
     }
 
+    /**
+     * Get the number of generated pseudo legal moves.
+     *
+     * @return The number of moves in the move buffer or in {@link #pseudoLegalMoves}.
+     */
+    public int getMoveCount() {
+        return moveBuffer != null ? moveCount : pseudoLegalMoves.size();
+    }
+
     //-------------------------------------------------
     // Filter
     //-------------------------------------------------
@@ -187,18 +220,16 @@ public class MoveGenerator {
             case WHITE_KING:
                 if (board.isKingSideCastlingAllowed(Board.Color.WHITE)) {
                     if (isKingSideCastlingPossible(piece)) {
-                        var move = new Move(piece, Bitboard.getLsb(kingBitboard), Bitboard.BitIndex.G1_IDX);
+                        var move = addMove(piece, Bitboard.getLsb(kingBitboard), Bitboard.BitIndex.G1_IDX);
                         move.setMoveFlag(Move.MoveFlag.CASTLING);
-                        pseudoLegalMoves.add(move);
                     }
                 }
                 break;
             case BLACK_KING:
                 if (board.isKingSideCastlingAllowed(Board.Color.BLACK)) {
                     if (isKingSideCastlingPossible(piece)) {
-                        var move = new Move(piece, Bitboard.getLsb(kingBitboard), Bitboard.BitIndex.G8_IDX);
+                        var move = addMove(piece, Bitboard.getLsb(kingBitboard), Bitboard.BitIndex.G8_IDX);
                         move.setMoveFlag(Move.MoveFlag.CASTLING);
-                        pseudoLegalMoves.add(move);
                     }
                 }
                 break;
@@ -265,18 +296,16 @@ public class MoveGenerator {
             case WHITE_KING:
                 if (board.isQueenSideCastlingAllowed(Board.Color.WHITE)) {
                     if (isQueenSideCastlingPossible(piece)) {
-                        var move = new Move(piece, Bitboard.getLsb(kingBitboard), Bitboard.BitIndex.C1_IDX);
+                        var move = addMove(piece, Bitboard.getLsb(kingBitboard), Bitboard.BitIndex.C1_IDX);
                         move.setMoveFlag(Move.MoveFlag.CASTLING);
-                        pseudoLegalMoves.add(move);
                     }
                 }
                 break;
             case BLACK_KING:
                 if (board.isQueenSideCastlingAllowed(Board.Color.BLACK)) {
                     if (isQueenSideCastlingPossible(piece)) {
-                        var move = new Move(piece, Bitboard.getLsb(kingBitboard), Bitboard.BitIndex.C8_IDX);
+                        var move = addMove(piece, Bitboard.getLsb(kingBitboard), Bitboard.BitIndex.C8_IDX);
                         move.setMoveFlag(Move.MoveFlag.CASTLING);
-                        pseudoLegalMoves.add(move);
                     }
                 }
                 break;
@@ -386,10 +415,9 @@ public class MoveGenerator {
                 var fromBitIndex = Bitboard.getLsb(whitePawnsBitboard);
 
                 if (abs(fromBitIndex.ordinal() - enemyDestination) == 1) {
-                    var move = new Move(Piece.WHITE_PAWN, fromBitIndex, board.getEpIndex());
+                    var move = addMove(Piece.WHITE_PAWN, fromBitIndex, board.getEpIndex());
                     move.setMoveFlag(Move.MoveFlag.EN_PASSANT);
                     move.setCapturedPieceType(PieceType.PAWN);
-                    pseudoLegalMoves.add(move);
                 }
 
                 whitePawnsBitboard &= whitePawnsBitboard - 1;
@@ -409,10 +437,9 @@ public class MoveGenerator {
                 var fromBitIndex = Bitboard.getLsb(blackPawnsBitboard);
 
                 if (abs(fromBitIndex.ordinal() - enemyDestination) == 1) {
-                    var move = new Move(Piece.BLACK_PAWN, fromBitIndex, board.getEpIndex());
+                    var move = addMove(Piece.BLACK_PAWN, fromBitIndex, board.getEpIndex());
                     move.setMoveFlag(Move.MoveFlag.EN_PASSANT);
                     move.setCapturedPieceType(PieceType.PAWN);
-                    pseudoLegalMoves.add(move);
                 }
 
                 blackPawnsBitboard &= blackPawnsBitboard - 1;
@@ -501,16 +528,10 @@ public class MoveGenerator {
         }
 
         while (movesBitboard != 0) {
-            var move = new Move(
-                    piece,
-                    fromBitIndex,
-                    Bitboard.getLsb(movesBitboard)
-            );
+            var move = addMove(piece, fromBitIndex, Bitboard.getLsb(movesBitboard));
 
             move.setMoveFlag(Move.MoveFlag.PAWN_START);
 
-            pseudoLegalMoves.add(move);
-
             movesBitboard &= movesBitboard - 1;
         }
     }
@@ -551,52 +572,31 @@ public class MoveGenerator {
             }
 
             // knight
-            var promoteKnight = new Move(
-                    piece,
-                    fromBitIndex,
-                    toBitIndex
-            );
+            var promoteKnight = addMove(piece, fromBitIndex, toBitIndex);
 
             promoteKnight.setMoveFlag(moveFlag);
             promoteKnight.setPromotedPieceType(PieceType.KNIGHT);
             promoteKnight.setCapturedPieceType(capturedPiece.pieceType); // default: NO_PIECE
-            pseudoLegalMoves.add(promoteKnight);
-
             // bishop
-            var promoteBishop = new Move(
-                    piece,
-                    fromBitIndex,
-                    toBitIndex
-            );
+            var promoteBishop = addMove(piece, fromBitIndex, toBitIndex);
 
             promoteBishop.setMoveFlag(moveFlag);
             promoteBishop.setPromotedPieceType(PieceType.BISHOP);
             promoteBishop.setCapturedPieceType(capturedPiece.pieceType);
-            pseudoLegalMoves.add(promoteBishop);
 
             // rook
-            var promoteRook = new Move(
-                    piece,
-                    fromBitIndex,
-                    toBitIndex
-            );
+            var promoteRook = addMove(piece, fromBitIndex, toBitIndex);
 
             promoteRook.setMoveFlag(moveFlag);
             promoteRook.setPromotedPieceType(PieceType.ROOK);
             promoteRook.setCapturedPieceType(capturedPiece.pieceType);
-            pseudoLegalMoves.add(promoteRook);
 
             // queen
-            var promoteQueen = new Move(
-                    piece,
-                    fromBitIndex,
-                    toBitIndex
-            );
+            var promoteQueen = addMove(piece, fromBitIndex, toBitIndex);
 
             promoteQueen.setMoveFlag(moveFlag);
             promoteQueen.setPromotedPieceType(PieceType.QUEEN);
             promoteQueen.setCapturedPieceType(capturedPiece.pieceType);
-            pseudoLegalMoves.add(promoteQueen);
 
             movesBitboard &= movesBitboard - 1;
         }
@@ -674,13 +674,7 @@ public class MoveGenerator {
      */
     private void addQuietMoves(Piece piece, Bitboard.BitIndex fromBitIndex, long movesBitboard) {
         while (movesBitboard != 0) {
-            var move = new Move(
-                    piece,
-                    fromBitIndex,
-                    Bitboard.getLsb(movesBitboard)
-            );
-
-            pseudoLegalMoves.add(move);
+            addMove(piece, fromBitIndex, Bitboard.getLsb(movesBitboard));
 
             movesBitboard &= movesBitboard - 1;
         }
@@ -708,25 +702,44 @@ public class MoveGenerator {
             var toBitIndex = Bitboard.getLsb(movesBitboard);
             var capturedPiece = board.getPieceFrom(toBitIndex);
 
-            var move = new Move(
-                    piece,
-                    fromBitIndex,
-                    toBitIndex
-            );
+            var move = addMove(piece, fromBitIndex, toBitIndex);
 
             move.setMoveFlag(Move.MoveFlag.CAPTURE);
             move.setCapturedPieceType(capturedPiece.pieceType);
 
+            movesBitboard &= movesBitboard - 1;
+        }
+    }
+
+    /**
+     * Adds a pseudo legal move to the {@link #moveBuffer} or, without a buffer, to {@link #pseudoLegalMoves}.
+     *
+     * @param piece A {@link Piece} of any color.
+     * @param fromBitIndex The from square {@link Bitboard.BitIndex}.
+     * @param toBitIndex The target square {@link Bitboard.BitIndex}.
+     *
+     * @return The added {@link Move}.
+     */
+    private Move addMove(Piece piece, Bitboard.BitIndex fromBitIndex, Bitboard.BitIndex toBitIndex) {
+        if (moveBuffer == null) {
+            var move = new Move(piece, fromBitIndex, toBitIndex);
             pseudoLegalMoves.add(move);
 
-            movesBitboard &= movesBitboard - 1;
+            return move;
         }
+
+        var move = moveBuffer[moveCount++];
+        move.reset(piece, fromBitIndex, toBitIndex);
+
+        return move;
     }
 
     /**
      * Generate and add all pseudo legal moves.
      */
     public void generatePseudoLegalMoves() {
+        moveCount = 0;
+
         if (board.getColorToMove() == Board.Color.WHITE) {
             // pawns
 
@@ -4,6 +4,10 @@
  * License: GNU GPLv2
  */
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -11,6 +15,156 @@ import java.util.Objects;
  */
 public class Search {
 
+    //-------------------------------------------------
+    // Internal iterative
+    //-------------------------------------------------
+
+    /**
+     * What a PV or cut node does without a move of the {@link TranspositionTable}; see {@link Config#INTERNAL_ITERATIVE}.
+     */
+    public enum InternalIterative {
+        /**
+         * Nothing.
+         */
+        NONE,
+
+        /**
+         * Internal iterative deepening: a reduced search stores a move to search first.
+         */
+        IID,
+
+        /**
+         * Internal iterative reduction: the node is searched one ply shallower.
+         */
+        IIR
+    }
+
+    //-------------------------------------------------
+    // Constants
+    //-------------------------------------------------
+
+    /**
+     * Check evasions are only searched in the first plies of the quiescence search,
+     * so that perpetual checks cannot extend it forever.
+     */
+    private static final int MAX_QUIESCENCE_EVASION_PLY = 4;
+
+    /**
+     * The maximum ply for which killer moves are kept.
+     */
+    static final int MAX_PLY = 128;
+
+    /**
+     * Scores beyond this bound are mate scores.
+     */
+    private static final int MATE_BOUND = SearchResult.MATE_SCORE - MAX_PLY;
+
+    /**
+     * The first iteration that starts with an aspiration window.
+     */
+    private static final int ASPIRATION_MIN_DEPTH = 4;
+
+    /**
+     * The number of fails of an iteration after which the failing side of the window is opened completely.
+     */
+    static final int ASPIRATION_MAX_FAILS = 3;
+
+    /**
+     * The minimum remaining depth for a null move.
+     */
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+
+    /**
+     * The maximum remaining depth of the frontier pruning: reverse futility pruning, razoring,
+     * futility pruning and late move pruning.
+     */
+    private static final int FRONTIER_PRUNING_MAX_DEPTH = 3;
+
+    /**
+     * The minimum remaining depth for ProbCut.
+     */
+    private static final int PROBCUT_MIN_DEPTH = 5;
+
+    /**
+     * The depth reduction of the ProbCut search.
+     */
+    private static final int PROBCUT_REDUCTION = 4;
+
+    /**
+     * The minimum remaining depth for internal iterative deepening and the depth reduction of its search.
+     */
+    private static final int IID_MIN_DEPTH = 5;
+    private static final int IID_REDUCTION = 2;
+
+    /**
+     * The minimum remaining depth for internal iterative reductions.
+     */
+    private static final int IIR_MIN_DEPTH = 4;
+
+    /**
+     * The maximum remaining depth at which quiet moves are pruned by their Static Exchange Evaluation.
+     */
+    private static final int SEE_PRUNING_MAX_DEPTH = 3;
+
+    /**
+     * The minimum remaining depth for late move reductions.
+     */
+    private static final int LMR_MIN_DEPTH = 3;
+
+    /**
+     * The number of legal moves that are searched at full depth before the reductions start.
+     */
+    private static final int LMR_FULL_DEPTH_MOVES = 3;
+
+    /**
+     * Late move reductions indexed by the remaining depth and the number of the move:
+     * 0.75 + ln(depth) * ln(moveNumber) / 2.25.
+     */
+    private static final int[][] LMR_REDUCTIONS = new int[64][64];
+
+    /**
+     * Move ordering: the move of the {@link TranspositionTable} first, then captures and promotions
+     * by MVV-LVA, then the two killer moves, the countermove and then the quiet moves by history.
+     */
+    private static final int TT_MOVE_SCORE = 1000000000;
+    private static final int CAPTURE_SCORE = 100000000;
+    private static final int FIRST_KILLER_SCORE = 90000000;
+    private static final int SECOND_KILLER_SCORE = 80000000;
+    private static final int COUNTER_MOVE_SCORE = 70000000;
+
+    /**
+     * The limit of the history values; the gravity update keeps them in -MAX_HISTORY .. MAX_HISTORY.
+     */
+    private static final int MAX_HISTORY = 16384;
+
+    /**
+     * The number of piece-to indices (12 pieces * 64 squares).
+     */
+    private static final int PIECE_TO_SIZE = 12 * 64;
+
+    /**
+     * The targeted time in ns between two checks of the clock and the stop flag.
+     */
+    private static final long CHECK_PERIOD = 1000000L;
+
+    /**
+     * The bounds of the number of nodes between two checks of the clock and the stop flag.
+     */
+    private static final long MIN_CHECK_INTERVAL = 64;
+    private static final long MAX_CHECK_INTERVAL = 65536;
+
+    //-------------------------------------------------
+    // Init
+    //-------------------------------------------------
+
+    static {
+        for (var depth = 1; depth < 64; depth++) {
+            for (var moveNumber = 1; moveNumber < 64; moveNumber++) {
+                LMR_REDUCTIONS[depth][moveNumber] = (int) (0.75 + Math.log(depth) * Math.log(moveNumber) / 2.25);
+            }
+        }
+    }
+
     //-------------------------------------------------
     // Member
     //-------------------------------------------------
@@ -25,16 +179,196 @@ public class Search {
      */
     private final Evaluation evaluation;
 
+    /**
+     * The {@link TranspositionTable}; may be shared with other searches.
+     */
+    private final TranspositionTable transpositionTable;
+
+    /**
+     * The number of aspiration window re-searches after a fail low of the current search.
+     */
+    private int aspirationFailLows;
+
+    /**
+     * The number of aspiration window re-searches after a fail high of the current search.
+     */
+    private int aspirationFailHighs;
+
+    /**
+     * The number of nodes of the current search at which ProbCut was tried.
+     */
+    private long probCutAttempts;
+
+    /**
+     * The number of nodes of the current search that were cut off by ProbCut.
+     */
+    private long probCutHits;
+
+    /**
+     * The number of internal iterative deepening searches of the current search that stored a move.
+     */
+    private long iidMoves;
+
+    /**
+     * The number of nodes of the current search that were reduced by internal iterative reduction.
+     */
+    private long iirReductions;
+
+    /**
+     * The number of moves of the current search that were searched one ply deeper as singular.
+     */
+    private long singularExtensions;
+
+    /**
+     * The number of nodes of the current search that were cut off by a multi-cut.
+     */
+    private long multiCuts;
+
+    /**
+     * The number of visited nodes of the current search.
+     */
+    private long nodes;
+
+    /**
+     * The number of quiescence nodes of the current search; included in {@link #nodes}.
+     */
+    private long qnodes;
+
+    /**
+     * The node budget of the current search.
+     */
+    private long maxNodes = Long.MAX_VALUE;
+
+    /**
+     * The wall-clock time in ms at which the current search has to stop.
+     */
+    private long deadline = Long.MAX_VALUE;
+
+    /**
+     * True if the budgets and stop requests are checked; the first iteration is always completed.
+     */
+    private boolean checkBudget;
+
+    /**
+     * True if a budget ran out and the search is unwinding.
+     */
+    private boolean stopped;
+
+    /**
+     * Set by another thread to stop the search, e.g. the main thread of a {@link LazySmp} search.
+     */
+    private volatile boolean stopRequested;
+
+    /**
+     * The number of nodes between two checks of the clock and {@link #stopRequested};
+     * adapted to the measured node rate, so that a check happens about every {@link #CHECK_PERIOD} ns.
+     */
+    private long checkInterval = MIN_CHECK_INTERVAL;
+
+    /**
+     * The node count at which the clock and {@link #stopRequested} are checked next.
+     */
+    private long nextCheckNodes;
+
+    /**
+     * The node count of the last check.
+     */
+    private long lastCheckNodes;
+
+    /**
+     * The {@link System#nanoTime()} of the last check.
+     */
+    private long lastCheckTime;
+
+    /**
+     * Butterfly history: the cutoffs of quiet moves, indexed by color, from and to square.
+     */
+    private final int[][][] history = new int[2][64][64];
+
+    /**
+     * The quiet move that refuted a move, as short move, indexed by the piece-to index of the refuted move.
+     */
+    private final int[] counterMoves = new int[PIECE_TO_SIZE];
+
+    /**
+     * Continuation history: the cutoffs of quiet moves, indexed by the piece-to index of the move
+     * one or two plies before and the piece-to index of the move.
+     */
+    private final int[][] continuationHistory = new int[PIECE_TO_SIZE][PIECE_TO_SIZE];
+
+    /**
+     * The preallocated state of each ply: move buffer, killers, current and excluded move.
+     */
+    private final SearchFrame[] frames = new SearchFrame[MAX_PLY];
+
+    /**
+     * The depth of the current root search; extensions are limited to twice this depth.
+     */
+    private int rootDepth;
+
+    /**
+     * Null moves are not allowed before this ply; set during the verification search of a null move cutoff.
+     */
+    private int nullMoveMinPly;
+
+    /**
+     * Triangular principal variation table: row p holds the principal variation of the node at ply p,
+     * as packed moves (see {@link Move#getPackedMove()}) from index p to {@link #pvLength}[p].
+     */
+    private final int[][] pvTable = new int[MAX_PLY + 1][MAX_PLY + 1];
+
+    /**
+     * The end index of the principal variation in each row of the {@link #pvTable}.
+     */
+    private final int[] pvLength = new int[MAX_PLY + 1];
+
     //-------------------------------------------------
     // Ctors.
     //-------------------------------------------------
 
     /**
-     * Constructs a new {@link Search} object.
+     * Constructs a new {@link Search} object with its own {@link TranspositionTable} of {@link Config#HASH_SIZE} MB.
      */
     public Search(Board board) {
+        this(board, new TranspositionTable(Config.HASH_SIZE));
+    }
+
+    /**
+     * Constructs a new {@link Search} object.
+     *
+     * @param board The {@link Board} to search.
+     * @param transpositionTable A {@link TranspositionTable}.
+     */
+    public Search(Board board, TranspositionTable transpositionTable) {
         this.board = Objects.requireNonNull(board, "board must not be null");
+        this.transpositionTable = Objects.requireNonNull(transpositionTable, "transpositionTable must not be null");
         evaluation = new Evaluation(board);
+
+        for (var i = 0; i < MAX_PLY; i++) {
+            frames[i] = new SearchFrame(board);
+        }
+    }
+
+    //-------------------------------------------------
+    // Getter
+    //-------------------------------------------------
+
+    /**
+     * Get {@link #transpositionTable}.
+     *
+     * @return {@link #transpositionTable}
+     */
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    /**
+     * Get the number of visited nodes of the current or last search.
+     *
+     * @return The number of nodes.
+     */
+    public long getNodes() {
+        return nodes;
     }
 
     //-------------------------------------------------
@@ -53,8 +387,8 @@ public class Search {
     */
 
     public SearchResult minimaxRoot(int depth) {
-        if (depth <= 0) {
-            System.out.println("Depth must be greater than 0.");
+        if (depth <= 0 || depth > MAX_PLY) {
+            System.out.println("Depth must be greater than 0 and not greater than " + MAX_PLY + ".");
             return null;
         }
 
@@ -67,6 +401,16 @@ public class Search {
         var bestScore = -99999;
         Move bestMove = null;
         var legalMovesMaked = 0;
+        nodes = 1;
+        qnodes = 0;
+        stopped = false;
+        checkBudget = true;
+        deadline = Long.MAX_VALUE;
+        maxNodes = Long.MAX_VALUE;
+        resetCheckInterval();
+
+        // minimax scores are white relative; the root maximizes for the color to move
+        var sign = board.getColorToMove() == Board.Color.WHITE ? 1 : -1;
 
         // start timer
         var startTime = System.currentTimeMillis();
@@ -86,8 +430,8 @@ public class Search {
             evaluation.evaluateMove(move);
 
             // determine score
-            var score = minimax(depth - 1);
-            if (score >= bestScore) {
+            var score = sign * minimax(depth - 1);
+            if (score > bestScore) {
                 bestScore = score;
                 bestMove = move;
             }
@@ -97,6 +441,11 @@ public class Search {
 
             // undo evaluation
             evaluation.undoMove(move);
+
+            // the scores of an interrupted search are incomplete
+            if (stopped) {
+                return null;
+            }
         }
 
         // stop timer
@@ -105,26 +454,34 @@ public class Search {
         // no legal moves were found; return MATE or STALEMATE
         if (legalMovesMaked == 0) {
             if (Attack.isCheck(board.getColorToMove(), board)) {
-                return new SearchResult(bestMove, SearchResult.MATE_SCORE, 0, endTime);
+                return new SearchResult(bestMove, -SearchResult.MATE_SCORE, nodes, endTime);
             } else {
-                return new SearchResult(bestMove, SearchResult.STALEMATE_SCORE, 0, endTime);
+                return new SearchResult(bestMove, SearchResult.STALEMATE_SCORE, nodes, endTime);
             }
         }
 
         // return results
-        return new SearchResult(bestMove, bestScore, 0, endTime);
+        var result = new SearchResult(bestMove, bestScore, nodes, endTime);
+        result.qnodes = qnodes;
+
+        return result;
     }
 
     private int minimax(int depth) {
+        nodes++;
+
+        if (shouldStop()) {
+            return 0;
+        }
+
         // return evaluation if depth 0
         if (depth == 0) {
             return evaluation.evaluate();
         }
 
-        // generate pseudo legal moves (color to move was already changed)
-        var mg = new MoveGenerator(board);
-        mg.generatePseudoLegalMoves();
-        var moves = mg.getPseudoLegalMoves();
+        // generate pseudo legal moves (color to move was already changed); the frames are indexed by the remaining depth
+        var frame = frames[depth];
+        frame.generateMoves();
 
         // init
         var legalMovesMaked = 0;
@@ -134,7 +491,9 @@ public class Search {
             int score = -99999;
 
             // loop over pseudo legal moves list
-            for (var move : moves) {
+            for (var i = 0; i < frame.moveCount; i++) {
+                var move = frame.moves[i];
+
                 // execute move
                 if (!board.makeMove(move)) {
                     // continue if move not legal
@@ -159,7 +518,7 @@ public class Search {
             // no legal moves were found; return MATE or STALEMATE score
             if (legalMovesMaked == 0) {
                 if (Attack.isCheck(Board.Color.WHITE, board)) {
-                    return SearchResult.MATE_SCORE;
+                    return -SearchResult.MATE_SCORE;
                 } else {
                     return SearchResult.STALEMATE_SCORE;
                 }
@@ -170,7 +529,9 @@ public class Search {
             int score = 99999;
 
             // loop over pseudo legal moves list
-            for (var move : moves) {
+            for (var i = 0; i < frame.moveCount; i++) {
+                var move = frame.moves[i];
+
                 // execute move
                 if (!board.makeMove(move)) {
                     // continue if move not legal
@@ -204,4 +565,1336 @@ public class Search {
             return score;
         }
     }
+
+    //-------------------------------------------------
+    // Stop
+    //-------------------------------------------------
+
+    /**
+     * Requests a running or upcoming search to stop. An iterative deepening search completes its first
+     * iteration and returns its last completed iteration, {@link #minimaxRoot(int)} and {@link #alphaBetaRoot(int)}
+     * return null. Can be called from any thread; the search notices the request within about {@link #CHECK_PERIOD} ns.
+     * The request is only cleared by {@link #reset()}, never by the search itself, so that a stop cannot get lost.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Clears a stop request, so that the {@link Search} can be used again.
+     * Has to be called before the search is started, on the thread that calls {@link #stop()}.
+     */
+    public void reset() {
+        stopRequested = false;
+    }
+
+    //-------------------------------------------------
+    // Iterative deepening
+    //-------------------------------------------------
+
+    /**
+     * Searches depth 1, 2, 3 ... until one of the budgets runs out.
+     * The root moves are reordered by the scores of the previous iteration, so that
+     * the best move so far is searched first. Depth 1 is always completed.
+     *
+     * @param maxDepth The maximum search depth.
+     * @param timeLimit The wall-clock budget in milliseconds or 0 for no limit.
+     * @param nodeLimit The node budget or 0 for no limit.
+     *
+     * @return The {@link SearchResult} of the last completed iteration or null if the depth is invalid.
+     */
+    public SearchResult iterativeDeepening(int maxDepth, long timeLimit, long nodeLimit) {
+        transpositionTable.newSearch();
+
+        return iterativeDeepening(1, maxDepth, timeLimit, nodeLimit);
+    }
+
+    /**
+     * Searches startDepth, startDepth + 1 ... until one of the budgets runs out or {@link #stop()} is called.
+     * Does not start a new {@link TranspositionTable} search, so that the threads of a {@link LazySmp}
+     * search can share the table.
+     *
+     * @param startDepth The depth of the first iteration.
+     * @param maxDepth The maximum search depth.
+     * @param timeLimit The wall-clock budget in milliseconds or 0 for no limit.
+     * @param nodeLimit The node budget or 0 for no limit.
+     *
+     * @return The {@link SearchResult} of the last completed iteration or null.
+     */
+    SearchResult iterativeDeepening(int startDepth, int maxDepth, long timeLimit, long nodeLimit) {
+        if (maxDepth <= 0 || startDepth <= 0) {
+            System.out.println("Depth must be greater than 0.");
+            return null;
+        }
+
+        var startTime = System.currentTimeMillis();
+        nodes = 0;
+        qnodes = 0;
+        stopped = false;
+        checkBudget = false;
+        deadline = timeLimit > 0 ? startTime + timeLimit : Long.MAX_VALUE;
+        maxNodes = nodeLimit > 0 ? nodeLimit : Long.MAX_VALUE;
+        resetCheckInterval();
+        aspirationFailLows = 0;
+        aspirationFailHighs = 0;
+        probCutAttempts = 0;
+        probCutHits = 0;
+        iidMoves = 0;
+        iirReductions = 0;
+        singularExtensions = 0;
+        multiCuts = 0;
+        clearMoveOrdering();
+
+        var rootMoves = generateRootMoves();
+        if (rootMoves.isEmpty()) {
+            return getNoMovesResult(System.currentTimeMillis() - startTime);
+        }
+
+        SearchResult result = null;
+
+        for (var depth = startDepth; depth <= maxDepth && (depth == startDepth || !stopRequested); depth++) {
+            nodes++;
+            var bestMove = searchAspirationWindow(rootMoves, depth, result);
+
+            // an interrupted iteration is discarded
+            if (stopped) {
+                break;
+            }
+
+            result = new SearchResult(bestMove, bestMove.getScore(), nodes, System.currentTimeMillis() - startTime);
+            result.depth = depth;
+            result.qnodes = qnodes;
+            result.hashfull = transpositionTable.getHashfull();
+            result.aspirationFailLows = aspirationFailLows;
+            result.aspirationFailHighs = aspirationFailHighs;
+            result.probCutAttempts = probCutAttempts;
+            result.probCutHits = probCutHits;
+            result.iidMoves = iidMoves;
+            result.iirReductions = iirReductions;
+            result.singularExtensions = singularExtensions;
+            result.multiCuts = multiCuts;
+            result.pv = getPrincipalVariation();
+
+            // best move first, the other moves by the bounds of the previous iteration
+            rootMoves.sort(Comparator.comparingInt(Move::getScore).reversed());
+
+            // a mate within the searched depth cannot become shorter in deeper iterations
+            if (Math.abs(result.bestScore) >= MATE_BOUND && SearchResult.MATE_SCORE - Math.abs(result.bestScore) <= depth) {
+                break;
+            }
+
+            // the budgets may interrupt all iterations after the first one
+            checkBudget = true;
+            if (isBudgetExhausted()) {
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    //-------------------------------------------------
+    // Alpha-beta
+    //-------------------------------------------------
+
+    /**
+     * Searches the best {@link Move} with a fail-soft negamax alpha-beta search.
+     * Returns the same best move and score as {@link #minimaxRoot(int)} at equal depth,
+     * but cuts off all subtrees that cannot change the result.
+     *
+     * @param depth The search depth.
+     *
+     * @return A {@link SearchResult} or null if the depth is invalid or the search was stopped by {@link #stop()}.
+     *         The score is from the view of the color to move.
+     */
+    public SearchResult alphaBetaRoot(int depth) {
+        if (depth <= 0) {
+            System.out.println("Depth must be greater than 0.");
+            return null;
+        }
+
+        // start timer
+        var startTime = System.currentTimeMillis();
+        nodes = 1;
+        qnodes = 0;
+        stopped = false;
+        checkBudget = true;
+        deadline = Long.MAX_VALUE;
+        maxNodes = Long.MAX_VALUE;
+        resetCheckInterval();
+        transpositionTable.newSearch();
+        clearMoveOrdering();
+
+        var rootMoves = generateRootMoves();
+        if (rootMoves.isEmpty()) {
+            return getNoMovesResult(System.currentTimeMillis() - startTime);
+        }
+
+        var bestMove = searchRoot(rootMoves, depth, -SearchResult.INFINITY, SearchResult.INFINITY);
+
+        // the result of an interrupted search is incomplete
+        if (stopped) {
+            return null;
+        }
+
+        var result = new SearchResult(bestMove, bestMove.getScore(), nodes, System.currentTimeMillis() - startTime);
+        result.depth = depth;
+        result.qnodes = qnodes;
+        result.hashfull = transpositionTable.getHashfull();
+        result.pv = getPrincipalVariation();
+
+        return result;
+    }
+
+    /**
+     * Searches an iteration with a narrow window around the score of the previous iteration.
+     * After a fail low or fail high the window is widened on that side, growing by half each time.
+     * After {@link #ASPIRATION_MAX_FAILS} fails or a mate score the failing side is opened completely,
+     * so that a large score swing does not cost many re-searches.
+     *
+     * @param rootMoves The legal moves of the root position.
+     * @param depth The search depth.
+     * @param previousResult The {@link SearchResult} of the previous iteration or null.
+     *
+     * @return The best {@link Move} or null if the search was stopped before the first root move was finished.
+     */
+    private Move searchAspirationWindow(List<Move> rootMoves, int depth, SearchResult previousResult) {
+        var delta = Config.ASPIRATION_WINDOW;
+        var alpha = -SearchResult.INFINITY;
+        var beta = SearchResult.INFINITY;
+
+        if (delta > 0 &&
+                depth >= ASPIRATION_MIN_DEPTH &&
+                previousResult != null &&
+                Math.abs(previousResult.bestScore) < MATE_BOUND
+        ) {
+            alpha = Math.max(previousResult.bestScore - delta, -SearchResult.INFINITY);
+            beta = Math.min(previousResult.bestScore + delta, SearchResult.INFINITY);
+        }
+
+        var fails = 0;
+
+        while (true) {
+            var bestMove = searchRoot(rootMoves, depth, alpha, beta);
+
+            if (stopped) {
+                return bestMove;
+            }
+
+            var score = bestMove.getScore();
+
+            if (score <= alpha && alpha > -SearchResult.INFINITY) {
+                aspirationFailLows++;
+                fails++;
+                alpha = fails >= ASPIRATION_MAX_FAILS || score <= -MATE_BOUND ?
+                        -SearchResult.INFINITY : Math.max(score - delta, -SearchResult.INFINITY);
+            } else if (score >= beta && beta < SearchResult.INFINITY) {
+                aspirationFailHighs++;
+                fails++;
+                beta = fails >= ASPIRATION_MAX_FAILS || score >= MATE_BOUND ?
+                        SearchResult.INFINITY : Math.min(score + delta, SearchResult.INFINITY);
+            } else {
+                return bestMove;
+            }
+
+            delta += delta / 2;
+
+            // search the move that failed high or the best upper bound first
+            rootMoves.sort(Comparator.comparingInt(Move::getScore).reversed());
+        }
+    }
+
+    /**
+     * Searches all root moves with the given window.
+     * The score of each root move is stored in the {@link Move}; for all moves except the best one
+     * this is an upper bound. After a fail high the remaining moves are not searched.
+     *
+     * @param rootMoves The legal moves of the root position.
+     * @param depth The search depth.
+     * @param alpha The lower bound.
+     * @param beta The upper bound.
+     *
+     * @return The first {@link Move} with the best score.
+     */
+    private Move searchRoot(List<Move> rootMoves, int depth, int alpha, int beta) {
+        rootDepth = depth;
+        clearPrincipalVariation(0);
+        var originalAlpha = alpha;
+        var bestScore = -SearchResult.INFINITY;
+        Move bestMove = null;
+
+        for (var move : rootMoves) {
+            board.makeMove(move);
+            evaluation.evaluateMove(move);
+            frames[0].pieceTo = getPieceTo(move);
+
+            var score = searchMove(depth, 0, alpha, beta, move == rootMoves.get(0), 0, false);
+
+            board.undoMove(move);
+            evaluation.undoMove(move);
+
+            if (stopped) {
+                break;
+            }
+
+            move.setScore(score);
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                updatePrincipalVariation(move, 0);
+
+                if (score > alpha) {
+                    alpha = score;
+
+                    if (score >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (!stopped) {
+            if (bestScore >= beta) {
+                transpositionTable.store(board.getZkey(), bestMove.getShortMove(), bestScore, depth, TranspositionTable.BOUND_LOWER);
+            } else if (bestScore > originalAlpha) {
+                transpositionTable.store(board.getZkey(), bestMove.getShortMove(), bestScore, depth, TranspositionTable.BOUND_EXACT);
+            } else {
+                transpositionTable.store(board.getZkey(), 0, bestScore, depth, TranspositionTable.BOUND_UPPER);
+            }
+        }
+
+        return bestMove;
+    }
+
+    /**
+     * Fail-soft negamax alpha-beta.
+     *
+     * @param depth The remaining depth.
+     * @param ply The distance to the root.
+     * @param alpha The lower bound.
+     * @param beta The upper bound.
+     * @param cutNode True if a beta cutoff is expected; only for nodes with a null window.
+     *
+     * @return The score from the view of the color to move; may be outside of the window.
+     */
+    private int alphaBeta(int depth, int ply, int alpha, int beta, boolean cutNode) {
+        clearPrincipalVariation(ply);
+
+        var color = board.getColorToMove();
+        var inCheck = board.isCheck(color);
+
+        // check extension: a side in check is searched one ply deeper, but only once per node
+        if (Config.CHECK_EXTENSIONS && inCheck && ply < Math.min(2 * rootDepth, MAX_PLY) && !frames[ply].nestedSearch) {
+            depth++;
+        }
+
+        // resolve the captures at the horizon
+        if (depth == 0 && Config.QUIESCENCE) {
+            return quiescence(alpha, beta, ply, 0);
+        }
+
+        nodes++;
+
+        if (shouldStop()) {
+            return 0;
+        }
+
+        // there are no frames for deeper plies
+        if (depth == 0 || ply >= MAX_PLY) {
+            return evaluate();
+        }
+
+        var frame = frames[ply];
+
+        // a node with an open window is on the principal variation; all others are searched with a null window
+        var pvNode = beta - alpha > 1;
+
+        // mate distance pruning: a shorter mate was already found
+        alpha = Math.max(alpha, -SearchResult.MATE_SCORE + ply);
+        beta = Math.min(beta, SearchResult.MATE_SCORE - ply - 1);
+        if (alpha >= beta) {
+            return alpha;
+        }
+
+        // the exclusion search of a singular extension neither reads nor writes the transposition table
+        var excludedMove = frame.excludedMove;
+
+        // probe the transposition table; the principal variation is not cut off
+        var key = board.getZkey();
+        var ttData = excludedMove == 0 ? transpositionTable.probe(key) : 0L;
+        var ttMove = 0;
+
+        if (ttData != 0) {
+            ttMove = TranspositionTable.getMove(ttData);
+
+            if (!pvNode && TranspositionTable.getDepth(ttData) >= depth) {
+                var ttScore = scoreFromTranspositionTable(TranspositionTable.getScore(ttData), ply);
+                var ttBound = TranspositionTable.getBound(ttData);
+
+                if (ttBound == TranspositionTable.BOUND_EXACT ||
+                        (ttBound == TranspositionTable.BOUND_LOWER && ttScore >= beta) ||
+                        (ttBound == TranspositionTable.BOUND_UPPER && ttScore <= alpha)
+                ) {
+                    return ttScore;
+                }
+            }
+        }
+
+        var staticEval = inCheck ? -SearchResult.INFINITY : evaluate();
+        frame.staticEval = staticEval;
+
+        // frontier nodes far outside of the window
+        var frontierNode = Config.FRONTIER_PRUNING && !pvNode && !inCheck && excludedMove == 0 && depth <= FRONTIER_PRUNING_MAX_DEPTH;
+
+        if (frontierNode) {
+            // reverse futility pruning: the static evaluation beats beta even after a margin for each ply
+            if (staticEval - Config.REVERSE_FUTILITY_MARGIN * depth >= beta && Math.abs(beta) < MATE_BOUND) {
+                return staticEval;
+            }
+
+            // razoring: far below alpha only a capture can help
+            if (staticEval + Config.RAZORING_MARGIN * depth <= alpha) {
+                var razorScore = Config.QUIESCENCE ? quiescence(alpha, alpha + 1, ply, 0) : staticEval;
+
+                if (stopped) {
+                    return 0;
+                }
+
+                if (razorScore <= alpha) {
+                    return razorScore;
+                }
+            }
+        }
+
+        // quiet moves that cannot raise the static evaluation to alpha are skipped
+        var futile = frontierNode && Math.abs(alpha) < MATE_BOUND && staticEval + Config.FUTILITY_MARGIN * depth <= alpha;
+
+        // late move pruning: quiet moves after this number of searched quiet moves are skipped
+        var lateMovePruningCount = frontierNode ? Config.LATE_MOVE_PRUNING_BASE + depth * depth : Integer.MAX_VALUE;
+
+        // null move pruning: if a free move for the enemy still fails high, this position fails high too
+        if (Config.NULL_MOVE_PRUNING &&
+                !pvNode &&
+                excludedMove == 0 &&
+                depth >= NULL_MOVE_MIN_DEPTH &&
+                !inCheck &&
+                ply >= nullMoveMinPly &&
+                getPieceToAt(ply - 1) >= 0 &&
+                Math.abs(beta) < MATE_BOUND &&
+                hasNonPawnMaterial(color) &&
+                staticEval >= beta
+        ) {
+            var nullScore = searchNullMove(depth, ply, beta, cutNode);
+
+            if (stopped) {
+                return 0;
+            }
+
+            if (nullScore >= beta) {
+                return nullScore;
+            }
+        }
+
+        // PV and cut nodes without a move of the transposition table
+        if (ttMove == 0 && (pvNode || cutNode) && excludedMove == 0) {
+            if (Config.INTERNAL_ITERATIVE == InternalIterative.IID && depth >= IID_MIN_DEPTH) {
+                // internal iterative deepening: a shallow search stores a move to search first
+                frame.nestedSearch = true;
+                alphaBeta(depth - IID_REDUCTION, ply, alpha, beta, cutNode);
+                frame.nestedSearch = false;
+
+                if (stopped) {
+                    return 0;
+                }
+
+                ttData = transpositionTable.probe(key);
+                ttMove = ttData != 0 ? TranspositionTable.getMove(ttData) : 0;
+
+                if (ttMove != 0) {
+                    iidMoves++;
+                }
+            } else if (Config.INTERNAL_ITERATIVE == InternalIterative.IIR && depth >= IIR_MIN_DEPTH) {
+                // internal iterative reduction: the node is searched one ply shallower
+                depth--;
+                iirReductions++;
+            }
+        }
+
+        frame.generateMoves();
+        scoreMoves(frame, ttMove, ply);
+
+        // ProbCut: a good capture that beats a raised beta in a reduced search will most likely beat beta
+        if (Config.PROBCUT &&
+                !pvNode &&
+                !inCheck &&
+                excludedMove == 0 &&
+                depth >= PROBCUT_MIN_DEPTH &&
+                Math.abs(beta) < MATE_BOUND
+        ) {
+            var probCutScore = searchProbCut(frame, depth, ply, beta);
+
+            if (stopped) {
+                return 0;
+            }
+
+            if (probCutScore != -SearchResult.INFINITY) {
+                return probCutScore;
+            }
+        }
+
+        // singular extension: the move of the transposition table is extended if all other moves fail low
+        // against a beta below its score
+        var singularMove = 0;
+
+        if (Config.SINGULAR_EXTENSIONS &&
+                excludedMove == 0 &&
+                ttMove != 0 &&
+                depth >= Config.SINGULAR_MIN_DEPTH &&
+                ply < Math.min(2 * rootDepth, MAX_PLY) &&
+                TranspositionTable.getDepth(ttData) >= depth - 3 &&
+                TranspositionTable.getBound(ttData) != TranspositionTable.BOUND_UPPER &&
+                Math.abs(scoreFromTranspositionTable(TranspositionTable.getScore(ttData), ply)) < MATE_BOUND
+        ) {
+            var singularBeta = scoreFromTranspositionTable(TranspositionTable.getScore(ttData), ply) - Config.SINGULAR_MARGIN * depth;
+
+            frame.excludedMove = ttMove;
+            frame.nestedSearch = true;
+            var singularScore = alphaBeta((depth - 1) / 2, ply, singularBeta - 1, singularBeta, cutNode);
+            frame.nestedSearch = false;
+            frame.excludedMove = 0;
+
+            if (stopped) {
+                return 0;
+            }
+
+            // the exclusion search has overwritten the moves of the frame
+            frame.generateMoves();
+            scoreMoves(frame, ttMove, ply);
+
+            if (singularScore < singularBeta) {
+                singularMove = ttMove;
+            } else if (singularBeta >= beta) {
+                // multi-cut: the move of the transposition table and at least one other move beat beta
+                multiCuts++;
+                return singularBeta;
+            }
+        }
+
+        var originalAlpha = alpha;
+        var bestScore = -SearchResult.INFINITY;
+        Move bestMove = null;
+        // the pruned moves are not made, so this is also the index of late move reductions
+        var legalMovesMaked = 0;
+        frame.quietMoveCount = 0;
+
+        // after the exclusion search, which shares the frame
+        frame.checkInfo.update(board);
+
+        for (var i = 0; i < frame.moveCount; i++) {
+            var move = pickNextMove(frame.moves, frame.moveCount, i);
+            var quiet = isQuiet(move);
+
+            if (move.getShortMove() == excludedMove) {
+                continue;
+            }
+
+            var givesCheck = frame.checkInfo.givesCheck(move, board);
+
+            // late move pruning; at least one move is searched, so that the node gets a score,
+            // and checking moves and killers are exempt like in the late move reductions
+            if (quiet &&
+                    bestMove != null &&
+                    frame.quietMoveCount >= lateMovePruningCount &&
+                    !givesCheck &&
+                    !isKiller(move)
+            ) {
+                continue;
+            }
+
+            // SEE pruning: the piece is lost on the destination square; tested before the move is made
+            var losing = Config.SEE_PRUNING &&
+                    quiet &&
+                    bestMove != null &&
+                    !inCheck &&
+                    depth <= SEE_PRUNING_MAX_DEPTH &&
+                    !Attack.seeGreaterOrEqual(move, board, -Config.SEE_QUIET_MARGIN * depth);
+
+            if ((futile || losing) && quiet && !givesCheck && bestMove != null) {
+                continue;
+            }
+
+            if (!board.makeMove(move)) {
+                continue;
+            }
+
+            legalMovesMaked++;
+            evaluation.evaluateMove(move);
+
+            frame.pieceTo = getPieceTo(move);
+
+            var reduction = 0;
+
+            // late move reductions: late quiet moves are searched with a null window at reduced depth
+            if (Config.LATE_MOVE_REDUCTIONS &&
+                    depth >= LMR_MIN_DEPTH &&
+                    legalMovesMaked > LMR_FULL_DEPTH_MOVES &&
+                    !inCheck &&
+                    quiet &&
+                    !isKiller(move) &&
+                    !givesCheck
+            ) {
+                reduction = Math.min(LMR_REDUCTIONS[Math.min(depth, 63)][Math.min(legalMovesMaked, 63)], depth - 2);
+            }
+
+            var extension = 0;
+            if (singularMove != 0 && move.getShortMove() == singularMove) {
+                extension = 1;
+                singularExtensions++;
+            }
+
+            var score = searchMove(depth + extension, ply, alpha, beta, legalMovesMaked == 1, reduction, cutNode);
+
+            board.undoMove(move);
+            evaluation.undoMove(move);
+
+            // the result of an interrupted search is useless
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+
+                if (score > alpha) {
+                    alpha = score;
+                    updatePrincipalVariation(move, ply);
+
+                    // beta cutoff
+                    if (score >= beta) {
+                        if (quiet) {
+                            updateQuietStatistics(move, frame, depth, ply);
+                        }
+
+                        break;
+                    }
+                }
+            }
+
+            if (quiet) {
+                frame.quietMoves[frame.quietMoveCount++] = move;
+            }
+        }
+
+        // no legal moves were found; return MATE or STALEMATE score
+        if (legalMovesMaked == 0) {
+            // only the excluded move is legal
+            if (excludedMove != 0) {
+                return alpha;
+            }
+
+            return inCheck ? -SearchResult.MATE_SCORE + ply : SearchResult.STALEMATE_SCORE;
+        }
+
+        // store the result; the best move of a fail low is unreliable
+        if (excludedMove != 0) {
+            return bestScore;
+        }
+
+        var ttScore = scoreToTranspositionTable(bestScore, ply);
+
+        if (bestScore >= beta) {
+            transpositionTable.store(key, bestMove.getShortMove(), ttScore, depth, TranspositionTable.BOUND_LOWER);
+        } else if (bestScore > originalAlpha) {
+            transpositionTable.store(key, bestMove.getShortMove(), ttScore, depth, TranspositionTable.BOUND_EXACT);
+        } else {
+            transpositionTable.store(key, 0, ttScore, depth, TranspositionTable.BOUND_UPPER);
+        }
+
+        return bestScore;
+    }
+
+    /**
+     * Principal variation search of a made move: the first move is searched with the full window,
+     * all later moves with a null window at the reduced depth. A later move that beats alpha is searched
+     * again, first at full depth and then, if it is still inside the window, with the full window.
+     *
+     * @param depth The remaining depth of the parent node plus the extension of the move.
+     * @param ply The distance of the parent node to the root.
+     * @param alpha The lower bound of the parent node.
+     * @param beta The upper bound of the parent node.
+     * @param firstMove True if it is the first legal move of the parent node.
+     * @param reduction The late move reduction.
+     * @param cutNode True if the parent node is a cut node.
+     *
+     * @return The score from the view of the parent node.
+     */
+    private int searchMove(int depth, int ply, int alpha, int beta, boolean firstMove, int reduction, boolean cutNode) {
+        // the first move of a cut node is expected to fail high, so its child is an all node and vice versa
+        if (firstMove) {
+            return -alphaBeta(depth - 1, ply + 1, -beta, -alpha, beta - alpha == 1 && !cutNode);
+        }
+
+        // a reduced move is expected to fail low, so its child should fail high
+        var score = -alphaBeta(depth - 1 - reduction, ply + 1, -alpha - 1, -alpha, true);
+
+        if (score > alpha && reduction > 0) {
+            score = -alphaBeta(depth - 1, ply + 1, -alpha - 1, -alpha, !cutNode);
+        }
+
+        if (score > alpha && score < beta) {
+            score = -alphaBeta(depth - 1, ply + 1, -beta, -alpha, false);
+        }
+
+        return score;
+    }
+
+    /**
+     * Searches the captures and promotions whose Static Exchange Evaluation reaches a raised beta,
+     * first with the quiescence search and then with a reduced null window search.
+     *
+     * @param frame The {@link SearchFrame} of the node with the scored moves and the static evaluation.
+     * @param depth The remaining depth.
+     * @param ply The distance to the root.
+     * @param beta The upper bound.
+     *
+     * @return A score of at least the raised beta or -INFINITY if the node cannot be cut off.
+     */
+    private int searchProbCut(SearchFrame frame, int depth, int ply, int beta) {
+        var probCutBeta = Math.min(beta + Config.PROBCUT_MARGIN, MATE_BOUND - 1);
+        var key = board.getZkey();
+
+        probCutAttempts++;
+
+        for (var i = 0; i < frame.moveCount; i++) {
+            var move = frame.moves[i];
+
+            if (isQuiet(move) || !Attack.seeGreaterOrEqual(move, board, probCutBeta - frame.staticEval)) {
+                continue;
+            }
+
+            if (!board.makeMove(move)) {
+                continue;
+            }
+
+            evaluation.evaluateMove(move);
+            frame.pieceTo = getPieceTo(move);
+
+            // the cheap quiescence search rules out most of the moves
+            var score = Config.QUIESCENCE ? -quiescence(-probCutBeta, -probCutBeta + 1, ply + 1, 0) : probCutBeta;
+
+            if (score >= probCutBeta && !stopped) {
+                score = -alphaBeta(depth - PROBCUT_REDUCTION, ply + 1, -probCutBeta, -probCutBeta + 1, false);
+            }
+
+            board.undoMove(move);
+            evaluation.undoMove(move);
+
+            if (stopped) {
+                return -SearchResult.INFINITY;
+            }
+
+            if (score >= probCutBeta) {
+                probCutHits++;
+                transpositionTable.store(key, move.getShortMove(), scoreToTranspositionTable(score, ply), depth - PROBCUT_REDUCTION + 1, TranspositionTable.BOUND_LOWER);
+
+                return score;
+            }
+        }
+
+        return -SearchResult.INFINITY;
+    }
+
+    /**
+     * Searches a null move with a null window around beta. The reduction grows with the depth.
+     * At {@link Config#NULL_MOVE_VERIFICATION_DEPTH} and above a cutoff is verified by a reduced search
+     * without null moves, so that zugzwang positions are not pruned.
+     *
+     * @param depth The remaining depth.
+     * @param ply The distance to the root.
+     * @param beta The upper bound.
+     * @param cutNode True if the node is a cut node.
+     *
+     * @return A score of at least beta if the node can be cut off; otherwise a score below beta.
+     */
+    private int searchNullMove(int depth, int ply, int beta, boolean cutNode) {
+        var reducedDepth = Math.max(depth - 1 - Config.NULL_MOVE_REDUCTION - depth / 4, 0);
+
+        var state = board.makeNullMove();
+        frames[ply].pieceTo = -1;
+
+        var score = -alphaBeta(reducedDepth, ply + 1, -beta, -beta + 1, !cutNode);
+
+        board.undoNullMove(state);
+
+        if (stopped || score < beta) {
+            return score;
+        }
+
+        // do not return unproven mate scores
+        if (score >= MATE_BOUND) {
+            score = beta;
+        }
+
+        if (depth < Config.NULL_MOVE_VERIFICATION_DEPTH) {
+            return score;
+        }
+
+        var oldNullMoveMinPly = nullMoveMinPly;
+        nullMoveMinPly = ply + 3 * reducedDepth / 4 + 1;
+
+        var verificationScore = alphaBeta(reducedDepth, ply, beta - 1, beta, false);
+
+        nullMoveMinPly = oldNullMoveMinPly;
+
+        return verificationScore >= beta ? score : verificationScore;
+    }
+
+    //-------------------------------------------------
+    // Quiescence
+    //-------------------------------------------------
+
+    /**
+     * Searches only captures and promotions until the position is quiet, so that the static evaluation
+     * is not taken in the middle of an exchange. The side to move may stand pat, i.e. accept the static
+     * evaluation if no capture is better. With {@link Config#QUIESCENCE_CHECK_EVASIONS} a side in check
+     * cannot stand pat and searches all evasions instead.
+     *
+     * @param alpha The lower bound.
+     * @param beta The upper bound.
+     * @param ply The distance to the root.
+     * @param qply The ply in the quiescence search.
+     *
+     * @return The score from the view of the color to move; may be outside of the window.
+     */
+    private int quiescence(int alpha, int beta, int ply, int qply) {
+        // the principal variation ends at the horizon
+        clearPrincipalVariation(ply);
+
+        nodes++;
+        qnodes++;
+
+        if (shouldStop()) {
+            return 0;
+        }
+
+        // there are no frames for deeper plies
+        if (ply >= MAX_PLY) {
+            return evaluate();
+        }
+
+        var inCheck = Config.QUIESCENCE_CHECK_EVASIONS &&
+                qply < MAX_QUIESCENCE_EVASION_PLY &&
+                Attack.isCheck(board.getColorToMove(), board);
+
+        var bestScore = -SearchResult.INFINITY;
+        var standPat = 0;
+
+        if (!inCheck) {
+            standPat = evaluate();
+            if (standPat >= beta) {
+                return standPat;
+            }
+
+            // delta pruning: even winning a queen does not reach alpha
+            if (standPat + PieceType.QUEEN.materialScore + Config.DELTA_MARGIN < alpha) {
+                return standPat;
+            }
+
+            if (standPat > alpha) {
+                alpha = standPat;
+            }
+
+            bestScore = standPat;
+        }
+
+        var frame = frames[ply];
+        frame.generateMoves();
+
+        // most valuable victim first, least valuable attacker first among equal victims
+        for (var i = 0; i < frame.moveCount; i++) {
+            frame.moves[i].setScore(getMvvLvaScore(frame.moves[i]));
+        }
+
+        var legalMovesMaked = 0;
+
+        for (var i = 0; i < frame.moveCount; i++) {
+            var move = pickNextMove(frame.moves, frame.moveCount, i);
+            var moveFlag = move.getMoveFlag();
+            var isPromotion = moveFlag == Move.MoveFlag.PROMOTION || moveFlag == Move.MoveFlag.PROMOTION_CAPTURE;
+            var isCapture = moveFlag == Move.MoveFlag.CAPTURE || moveFlag == Move.MoveFlag.PROMOTION_CAPTURE || moveFlag == Move.MoveFlag.EN_PASSANT;
+
+            if (!inCheck) {
+                if (!isCapture && !isPromotion) {
+                    continue;
+                }
+
+                // delta pruning: the captured piece cannot raise the score to alpha
+                if (!isPromotion && standPat + move.getCapturedPieceType().materialScore + Config.DELTA_MARGIN < alpha) {
+                    continue;
+                }
+
+                // SEE pruning: the exchange started by the capture loses material
+                if (Config.SEE_PRUNING && !isPromotion && !Attack.seeGreaterOrEqual(move, board, 0)) {
+                    continue;
+                }
+            }
+
+            if (!board.makeMove(move)) {
+                continue;
+            }
+
+            legalMovesMaked++;
+            evaluation.evaluateMove(move);
+
+            var score = -quiescence(-beta, -alpha, ply + 1, qply + 1);
+
+            board.undoMove(move);
+            evaluation.undoMove(move);
+
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+
+                if (score > alpha) {
+                    alpha = score;
+
+                    if (score >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        // checkmate
+        if (inCheck && legalMovesMaked == 0) {
+            return -SearchResult.MATE_SCORE + ply;
+        }
+
+        return bestScore;
+    }
+
+    //-------------------------------------------------
+    // Helper
+    //-------------------------------------------------
+
+    /**
+     * The static evaluation from the view of the color to move.
+     *
+     * @return The score.
+     */
+    private int evaluate() {
+        return board.getColorToMove() == Board.Color.WHITE ? evaluation.evaluate() : -evaluation.evaluate();
+    }
+
+    /**
+     * Generates the legal moves of the root position.
+     *
+     * @return The legal moves in generation order.
+     */
+    private List<Move> generateRootMoves() {
+        var mg = new MoveGenerator(board);
+        mg.generatePseudoLegalMoves();
+
+        var rootMoves = new ArrayList<Move>();
+        for (var move : mg.getPseudoLegalMoves()) {
+            if (board.makeMove(move)) {
+                board.undoMove(move);
+                rootMoves.add(move);
+            }
+        }
+
+        return rootMoves;
+    }
+
+    /**
+     * The result of a root position without legal moves.
+     *
+     * @param time The elapsed time in ms.
+     *
+     * @return A {@link SearchResult} with the MATE or STALEMATE score and without a best move.
+     */
+    private SearchResult getNoMovesResult(long time) {
+        var score = Attack.isCheck(board.getColorToMove(), board) ? -SearchResult.MATE_SCORE : SearchResult.STALEMATE_SCORE;
+
+        return new SearchResult(null, score, nodes, time);
+    }
+
+    /**
+     * Starts an empty principal variation at a node.
+     *
+     * @param ply The distance to the root.
+     */
+    private void clearPrincipalVariation(int ply) {
+        if (ply <= MAX_PLY) {
+            pvLength[ply] = ply;
+        }
+    }
+
+    /**
+     * Sets the principal variation of a node to a {@link Move} followed by the principal variation of its child.
+     * Copies within the preallocated {@link #pvTable}, so nothing is allocated.
+     *
+     * @param move The {@link Move} that raised alpha.
+     * @param ply The distance to the root.
+     */
+    private void updatePrincipalVariation(Move move, int ply) {
+        if (ply >= MAX_PLY) {
+            return;
+        }
+
+        var childLength = Math.max(pvLength[ply + 1], ply + 1);
+
+        pvTable[ply][ply] = move.getPackedMove();
+        System.arraycopy(pvTable[ply + 1], ply + 1, pvTable[ply], ply + 1, childLength - ply - 1);
+        pvLength[ply] = childLength;
+    }
+
+    /**
+     * Get the principal variation of the root.
+     *
+     * @return A copy of the principal variation as packed moves.
+     */
+    private int[] getPrincipalVariation() {
+        return Arrays.copyOf(pvTable[0], pvLength[0]);
+    }
+
+    /**
+     * The MVV-LVA (most valuable victim, least valuable attacker) order of a {@link Move}.
+     * Quiet moves get 0 unless they promote.
+     *
+     * @param move {@link Move}
+     *
+     * @return The order; higher is searched first.
+     */
+    private static int getMvvLvaScore(Move move) {
+        var victim = move.getMoveFlag() == Move.MoveFlag.EN_PASSANT ? PieceType.PAWN.value : move.getCapturedPieceType().value;
+        if (victim == 0 && move.getPromotedPieceTypeValue() == 0) {
+            return 0;
+        }
+
+        return (victim + move.getPromotedPieceTypeValue()) * 8 + 7 - move.getPiece().pieceType.value;
+    }
+
+    /**
+     * Mate scores are stored in the {@link TranspositionTable} as distance to the mate from the position
+     * instead of from the root, so that they are valid at any ply.
+     *
+     * @param score The score from the view of the color to move.
+     * @param ply The distance to the root.
+     *
+     * @return The score to store.
+     */
+    private static int scoreToTranspositionTable(int score, int ply) {
+        if (score >= MATE_BOUND) {
+            return score + ply;
+        }
+
+        if (score <= -MATE_BOUND) {
+            return score - ply;
+        }
+
+        return score;
+    }
+
+    /**
+     * Converts a stored score back to a mate distance from the root.
+     *
+     * @param score The stored score.
+     * @param ply The distance to the root.
+     *
+     * @return The score from the view of the color to move.
+     */
+    private static int scoreFromTranspositionTable(int score, int ply) {
+        if (score >= MATE_BOUND) {
+            return score - ply;
+        }
+
+        if (score <= -MATE_BOUND) {
+            return score + ply;
+        }
+
+        return score;
+    }
+
+    //-------------------------------------------------
+    // Move ordering
+    //-------------------------------------------------
+
+    /**
+     * Removes the killer moves and the history of a previous search.
+     */
+    private void clearMoveOrdering() {
+        for (var frame : frames) {
+            Arrays.fill(frame.killers, 0);
+        }
+
+        for (var colorHistory : history) {
+            for (var fromHistory : colorHistory) {
+                Arrays.fill(fromHistory, 0);
+            }
+        }
+
+        Arrays.fill(counterMoves, 0);
+
+        for (var pieceToHistory : continuationHistory) {
+            Arrays.fill(pieceToHistory, 0);
+        }
+    }
+
+    /**
+     * Stores the order of each {@link Move} as its score.
+     *
+     * @param frame The {@link SearchFrame} with the pseudo legal moves and the killers.
+     * @param ttMove The move of the {@link TranspositionTable} as short move or 0.
+     * @param ply The distance to the root.
+     */
+    private void scoreMoves(SearchFrame frame, int ttMove, int ply) {
+        var color = board.getColorToMove().ordinal();
+        var firstKiller = frame.killers[0];
+        var secondKiller = frame.killers[1];
+        var previousPieceTo = getPieceToAt(ply - 1);
+        var counterMove = previousPieceTo >= 0 ? counterMoves[previousPieceTo] : 0;
+        var firstContinuation = previousPieceTo >= 0 ? continuationHistory[previousPieceTo] : null;
+        var secondPieceTo = getPieceToAt(ply - 2);
+        var secondContinuation = secondPieceTo >= 0 ? continuationHistory[secondPieceTo] : null;
+
+        for (var i = 0; i < frame.moveCount; i++) {
+            var move = frame.moves[i];
+            var shortMove = move.getShortMove();
+
+            if (shortMove == ttMove) {
+                move.setScore(TT_MOVE_SCORE);
+            } else if (!isQuiet(move)) {
+                move.setScore(CAPTURE_SCORE + getMvvLvaScore(move));
+            } else if (shortMove == firstKiller) {
+                move.setScore(FIRST_KILLER_SCORE);
+            } else if (shortMove == secondKiller) {
+                move.setScore(SECOND_KILLER_SCORE);
+            } else if (shortMove == counterMove) {
+                move.setScore(COUNTER_MOVE_SCORE);
+            } else {
+                var pieceTo = getPieceTo(move);
+                var score = history[color][move.getFrom()][move.getTo()];
+
+                if (firstContinuation != null) {
+                    score += firstContinuation[pieceTo];
+                }
+
+                if (secondContinuation != null) {
+                    score += secondContinuation[pieceTo];
+                }
+
+                move.setScore(score);
+            }
+        }
+    }
+
+    /**
+     * Selection sort step: moves the {@link Move} with the highest score of the remaining moves to the index.
+     * Cheaper than sorting the whole list, because most nodes cut off after the first few moves.
+     *
+     * @param moves The scored moves.
+     * @param moveCount The number of valid moves.
+     * @param index The index of the next move to search.
+     *
+     * @return The next {@link Move}.
+     */
+    private static Move pickNextMove(Move[] moves, int moveCount, int index) {
+        var bestIndex = index;
+
+        for (var i = index + 1; i < moveCount; i++) {
+            if (moves[i].getScore() > moves[bestIndex].getScore()) {
+                bestIndex = i;
+            }
+        }
+
+        var move = moves[bestIndex];
+
+        if (bestIndex != index) {
+            moves[bestIndex] = moves[index];
+            moves[index] = move;
+        }
+
+        return move;
+    }
+
+    /**
+     * Updates the killer moves, the countermove and the histories after a quiet {@link Move} caused a beta cutoff.
+     * The move gets a bonus, the quiet moves searched before it a malus.
+     *
+     * @param move The quiet {@link Move}.
+     * @param frame The {@link SearchFrame} with the killers and the quiet moves searched before the move.
+     * @param depth The remaining depth.
+     * @param ply The distance to the root.
+     */
+    private void updateQuietStatistics(Move move, SearchFrame frame, int depth, int ply) {
+        var shortMove = move.getShortMove();
+
+        if (frame.killers[0] != shortMove) {
+            frame.killers[1] = frame.killers[0];
+            frame.killers[0] = shortMove;
+        }
+
+        var previousPieceTo = getPieceToAt(ply - 1);
+        if (previousPieceTo >= 0) {
+            counterMoves[previousPieceTo] = shortMove;
+        }
+
+        var bonus = Math.min(16 * depth * depth, MAX_HISTORY / 8);
+
+        updateHistories(move, bonus, ply);
+        for (var i = 0; i < frame.quietMoveCount; i++) {
+            updateHistories(frame.quietMoves[i], -bonus, ply);
+        }
+    }
+
+    /**
+     * Adds a bonus or malus to the butterfly and continuation histories of a quiet {@link Move}.
+     *
+     * @param move The quiet {@link Move}.
+     * @param bonus A bonus (positive) or malus (negative).
+     * @param ply The distance to the root.
+     */
+    private void updateHistories(Move move, int bonus, int ply) {
+        var colorHistory = history[move.getPiece().color.ordinal()][move.getFrom()];
+        colorHistory[move.getTo()] = applyGravity(colorHistory[move.getTo()], bonus);
+
+        var pieceTo = getPieceTo(move);
+
+        var previousPieceTo = getPieceToAt(ply - 1);
+        if (previousPieceTo >= 0) {
+            continuationHistory[previousPieceTo][pieceTo] = applyGravity(continuationHistory[previousPieceTo][pieceTo], bonus);
+        }
+
+        var secondPieceTo = getPieceToAt(ply - 2);
+        if (secondPieceTo >= 0) {
+            continuationHistory[secondPieceTo][pieceTo] = applyGravity(continuationHistory[secondPieceTo][pieceTo], bonus);
+        }
+    }
+
+    /**
+     * History gravity: the bonus shrinks as the value approaches the limit, so that the value stays
+     * in -MAX_HISTORY .. MAX_HISTORY and old results fade out.
+     *
+     * @param value The history value.
+     * @param bonus A bonus (positive) or malus (negative).
+     *
+     * @return The new history value.
+     */
+    private static int applyGravity(int value, int bonus) {
+        return value + bonus - value * Math.abs(bonus) / MAX_HISTORY;
+    }
+
+    /**
+     * The piece-to index of a {@link Move}.
+     *
+     * @param move {@link Move}
+     *
+     * @return The index (0 - 767).
+     */
+    private static int getPieceTo(Move move) {
+        return move.getPiece().value * 64 + move.getTo();
+    }
+
+    /**
+     * The piece-to index of the move made at a ply.
+     *
+     * @param ply The ply.
+     *
+     * @return The index or -1 for a null move or if there is no such move.
+     */
+    private int getPieceToAt(int ply) {
+        return ply >= 0 && ply < MAX_PLY ? frames[ply].pieceTo : -1;
+    }
+
+    /**
+     * Checks whether a {@link Board.Color} has a piece other than pawns and the king.
+     * Null moves are not tried without such pieces, because zugzwang is common in pawn endings.
+     *
+     * @param color A white or black {@link Board.Color}.
+     *
+     * @return boolean
+     */
+    private boolean hasNonPawnMaterial(Board.Color color) {
+        return (board.getKnights(color) | board.getBishops(color) | board.getRooks(color) | board.getQueens(color)) != 0;
+    }
+
+    /**
+     * Checks whether a scored {@link Move} is one of the killer moves of its ply.
+     *
+     * @param move {@link Move} scored by {@link #scoreMoves(SearchFrame, int, int)}.
+     *
+     * @return boolean
+     */
+    private static boolean isKiller(Move move) {
+        return move.getScore() == FIRST_KILLER_SCORE || move.getScore() == SECOND_KILLER_SCORE;
+    }
+
+    /**
+     * Checks whether a {@link Move} is neither a capture nor a promotion.
+     *
+     * @param move {@link Move}
+     *
+     * @return boolean
+     */
+    private static boolean isQuiet(Move move) {
+        return getMvvLvaScore(move) == 0;
+    }
+
+    /**
+     * Checks the node budget at every node, the time budget and stop requests every {@link #checkInterval} nodes.
+     *
+     * @return True if the search has to unwind.
+     */
+    private boolean shouldStop() {
+        if (checkBudget && nodes > maxNodes) {
+            stopped = true;
+        } else if (nodes >= nextCheckNodes) {
+            updateCheckInterval();
+
+            if (checkBudget && (stopRequested || isBudgetExhausted())) {
+                stopped = true;
+            }
+        }
+
+        return stopped;
+    }
+
+    /**
+     * Starts the check schedule of a new search with the interval of the previous search.
+     */
+    private void resetCheckInterval() {
+        lastCheckNodes = nodes;
+        lastCheckTime = System.nanoTime();
+        nextCheckNodes = nodes + checkInterval;
+    }
+
+    /**
+     * Scales the {@link #checkInterval} to the node rate since the last check and schedules the next check.
+     * The interval at most doubles per check, so that a slow phase of the search is not overshot.
+     */
+    private void updateCheckInterval() {
+        var now = System.nanoTime();
+        var elapsed = Math.max(now - lastCheckTime, 1L);
+        var interval = (nodes - lastCheckNodes) * CHECK_PERIOD / elapsed;
+
+        checkInterval = Math.max(MIN_CHECK_INTERVAL, Math.min(Math.min(interval, checkInterval * 2), MAX_CHECK_INTERVAL));
+        lastCheckNodes = nodes;
+        lastCheckTime = now;
+        nextCheckNodes = nodes + checkInterval;
+    }
+
+    /**
+     * Checks the time and node budgets.
+     *
+     * @return boolean
+     */
+    private boolean isBudgetExhausted() {
+        return nodes >= maxNodes || System.currentTimeMillis() >= deadline;
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ * This file is part of the SgChess project.
+ * Copyright (c) 2021 stwe <https://github.com/stwe/SgChess>
+ * License: GNU GPLv2
+ */
+
+/**
+ * Represents a SearchFrame object.
+ * The state of one ply of a {@link Search}. The frames are allocated once per {@link Search},
+ * so that the search does not create garbage per node.
+ */
+class SearchFrame {
+
+    //-------------------------------------------------
+    // Constants
+    //-------------------------------------------------
+
+    /**
+     * The maximum number of pseudo legal moves of a position; 218 legal moves are the known maximum.
+     */
+    static final int MAX_MOVES = 256;
+
+    //-------------------------------------------------
+    // Member
+    //-------------------------------------------------
+
+    /**
+     * The move buffer: preallocated {@link Move} objects for the pseudo legal moves of the node.
+     * The order score of each move is stored in the {@link Move}.
+     */
+    final Move[] moves = new Move[MAX_MOVES];
+
+    /**
+     * Generates into {@link #moves}.
+     */
+    private final MoveGenerator moveGenerator;
+
+    /**
+     * The number of valid moves in {@link #moves}.
+     */
+    int moveCount;
+
+    /**
+     * The quiet moves searched so far; they get a history malus after a quiet beta cutoff.
+     */
+    final Move[] quietMoves = new Move[MAX_MOVES];
+
+    /**
+     * The number of valid moves in {@link #quietMoves}.
+     */
+    int quietMoveCount;
+
+    /**
+     * The static evaluation of the node from the view of the color to move.
+     */
+    int staticEval;
+
+    /**
+     * Two quiet moves that caused a beta cutoff at this ply, as short moves (see {@link Move#getShortMove()}).
+     */
+    final int[] killers = new int[2];
+
+    /**
+     * The checkers, pins and check squares of the node.
+     */
+    final CheckInfo checkInfo = new CheckInfo();
+
+    /**
+     * The piece-to index of the current move made at this ply; -1 for a null move.
+     */
+    int pieceTo = -1;
+
+    /**
+     * The move that is skipped by the exclusion search of a singular extension, as short move or 0.
+     */
+    int excludedMove;
+
+    /**
+     * True while the node searches itself again at a lower depth (internal iterative deepening or the exclusion
+     * search of a singular extension); its depth already contains the check extension.
+     */
+    boolean nestedSearch;
+
+    //-------------------------------------------------
+    // Ctors.
+    //-------------------------------------------------
+
+    /**
+     * Constructs a new {@link SearchFrame} object.
+     *
+     * @param board The {@link Board} of the {@link Search}.
+     */
+    SearchFrame(Board board) {
+        for (var i = 0; i < MAX_MOVES; i++) {
+            moves[i] = new Move(0);
+        }
+
+        moveGenerator = new MoveGenerator(board, moves);
+    }
+
+    //-------------------------------------------------
+    // Moves
+    //-------------------------------------------------
+
+    /**
+     * Generates the pseudo legal moves of the current position into {@link #moves}.
+     */
+    void generateMoves() {
+        moveGenerator.generatePseudoLegalMoves();
+        moveCount = moveGenerator.getMoveCount();
+    }
+}
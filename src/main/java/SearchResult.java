@@ -14,14 +14,32 @@ public class SearchResult {
 
     public static final int STALEMATE_SCORE = 0;
 
+    public static final int INFINITY = 30000;
+
     //-------------------------------------------------
     // Member
     //-------------------------------------------------
 
     public Move bestMove = null;
     public int bestScore = 0;
-    public int nodes = 0;
+    public long nodes = 0;
+    public long qnodes = 0;
     public long time = 0;
+    public int depth = 0;
+    public int hashfull = 0;
+    public int aspirationFailLows = 0;
+    public int aspirationFailHighs = 0;
+    public long probCutAttempts = 0;
+    public long probCutHits = 0;
+    public long iidMoves = 0;
+    public long iirReductions = 0;
+    public long singularExtensions = 0;
+    public long multiCuts = 0;
+
+    /**
+     * The principal variation as packed moves (see {@link Move#getPackedMove()}), starting with the best move.
+     */
+    public int[] pv = new int[0];
 
     //-------------------------------------------------
     // Ctors.
@@ -30,7 +48,7 @@ public class SearchResult {
     public SearchResult() {
     }
 
-    public SearchResult(Move bestMove, int bestScore, int nodes, long time) {
+    public SearchResult(Move bestMove, int bestScore, long nodes, long time) {
         this.bestMove = bestMove;
         this.bestScore = bestScore;
         this.nodes = nodes;
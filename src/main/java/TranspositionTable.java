@@ -0,0 +1,233 @@
+/*
+ * This file is part of the SgChess project.
+ * Copyright (c) 2021 stwe <https://github.com/stwe/SgChess>
+ * License: GNU GPLv2
+ */
+
+import java.util.Arrays;
+
+/**
+ * Represents a TranspositionTable object.
+ * A fixed-size hash table of search results in a primitive long[], shared by all search threads.
+ *
+ * <p>Each entry uses two longs: the Zobrist key XOR the data and the data itself. A reader only
+ * accepts an entry if both longs belong together, so torn writes of concurrent threads are
+ * detected without locks.</p>
+ */
+public class TranspositionTable {
+
+    //-------------------------------------------------
+    // Constants
+    //-------------------------------------------------
+
+    public static final int BOUND_NONE = 0;
+    public static final int BOUND_UPPER = 1;
+    public static final int BOUND_LOWER = 2;
+    public static final int BOUND_EXACT = 3;
+
+    /**
+     * The number of bytes of an entry.
+     */
+    private static final int ENTRY_SIZE = 16;
+
+    //-------------------------------------------------
+    // Member
+    //-------------------------------------------------
+
+    /**
+     * Two longs per entry: key ^ data and data.
+     *
+     * The data format is as follows:
+     *
+     * <p>bit  0 - 15: <b>move</b> (see {@link Move#getShortMove()})</p>
+     * <p>bit 16 - 31: <b>score</b> (signed)</p>
+     * <p>bit 32 - 39: <b>depth</b> (0 - 255)</p>
+     * <p>bit 40 - 41: <b>bound</b> (none, upper, lower, exact)</p>
+     * <p>bit 42 - 47: <b>age</b> (0 - 63)</p>
+     * <p>bit 48 - 63: <b>key check bits</b> (the upper 16 bits of the key)</p>
+     */
+    private final long[] table;
+
+    /**
+     * The number of entries minus one; the number of entries is a power of two.
+     */
+    private final int mask;
+
+    /**
+     * The age of the current search.
+     */
+    private volatile int age;
+
+    //-------------------------------------------------
+    // Ctors.
+    //-------------------------------------------------
+
+    /**
+     * Constructs a new {@link TranspositionTable} object.
+     *
+     * @param sizeInMb The size in MB; rounded down to a power of two number of entries.
+     */
+    public TranspositionTable(int sizeInMb) {
+        if (sizeInMb <= 0) {
+            throw new RuntimeException("Invalid transposition table size " + sizeInMb + " MB.");
+        }
+
+        var entries = Long.highestOneBit((long) sizeInMb * 1024 * 1024 / ENTRY_SIZE);
+        if (entries > (1 << 29)) {
+            entries = 1 << 29;
+        }
+
+        table = new long[(int) entries * 2];
+        mask = (int) entries - 1;
+    }
+
+    //-------------------------------------------------
+    // Getter
+    //-------------------------------------------------
+
+    /**
+     * Get the number of entries.
+     *
+     * @return The number of entries.
+     */
+    public int getSize() {
+        return mask + 1;
+    }
+
+    /**
+     * The occupancy in permille, estimated from the first 1000 entries written by the current search.
+     *
+     * @return The hashfull value (0 - 1000).
+     */
+    public int getHashfull() {
+        var samples = Math.min(1000, getSize());
+        var used = 0;
+
+        for (var i = 0; i < samples; i++) {
+            var data = table[2 * i + 1];
+            if (getBound(data) != BOUND_NONE && getAge(data) == age) {
+                used++;
+            }
+        }
+
+        return used * 1000 / samples;
+    }
+
+    //-------------------------------------------------
+    // Probe / store
+    //-------------------------------------------------
+
+    /**
+     * Starts a new search; entries of older searches are replaced first.
+     */
+    public void newSearch() {
+        age = (age + 1) & 63;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        age = 0;
+    }
+
+    /**
+     * Looks up the entry of a position.
+     *
+     * @param key The Zobrist key of the position.
+     *
+     * @return The data of the entry or 0 if there is no valid entry for the key.
+     */
+    public long probe(long key) {
+        var index = getIndex(key);
+        var data = table[index + 1];
+
+        if ((table[index] ^ data) != key || getBound(data) == BOUND_NONE) {
+            return 0L;
+        }
+
+        return data;
+    }
+
+    /**
+     * Stores a search result.
+     * An entry of the same position is only replaced by a result of at least the same depth
+     * or an exact score; an entry of another position only if it is older or shallower.
+     *
+     * @param key The Zobrist key of the position.
+     * @param move The best move as short move or 0.
+     * @param score The score.
+     * @param depth The search depth.
+     * @param bound The bound type of the score.
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        var index = getIndex(key);
+        var oldData = table[index + 1];
+        var sameKey = (table[index] ^ oldData) == key;
+
+        if (getBound(oldData) != BOUND_NONE) {
+            if (sameKey) {
+                if (depth < getDepth(oldData) && bound != BOUND_EXACT) {
+                    return;
+                }
+
+                // keep the known best move
+                if (move == 0) {
+                    move = getMove(oldData);
+                }
+            } else if (getAge(oldData) == age && depth < getDepth(oldData)) {
+                return;
+            }
+        }
+
+        var data = (move & 0xFFFFL)
+                | ((score & 0xFFFFL) << 16)
+                | ((Math.max(0, Math.min(depth, 255)) & 0xFFL) << 32)
+                | ((bound & 3L) << 40)
+                | ((age & 63L) << 42)
+                | (key & 0xFFFF000000000000L);
+
+        table[index] = key ^ data;
+        table[index + 1] = data;
+    }
+
+    //-------------------------------------------------
+    // Decode
+    //-------------------------------------------------
+
+    public static int getMove(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    public static int getScore(long data) {
+        return (short) (data >>> 16);
+    }
+
+    public static int getDepth(long data) {
+        return (int) ((data >>> 32) & 0xFF);
+    }
+
+    public static int getBound(long data) {
+        return (int) ((data >>> 40) & 3);
+    }
+
+    public static int getAge(long data) {
+        return (int) ((data >>> 42) & 63);
+    }
+
+    //-------------------------------------------------
+    // Helper
+    //-------------------------------------------------
+
+    /**
+     * Get the index of the first long of an entry.
+     *
+     * @param key The Zobrist key.
+     *
+     * @return The array index.
+     */
+    private int getIndex(long key) {
+        return ((int) key & mask) << 1;
+    }
+}
@@ -8,12 +8,49 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Objects;
 import java.util.Scanner;
+import java.util.concurrent.CountDownLatch;
 
 public class UCIClient {
 
     private final static String AUTHOR = "stwe";
+
+    /**
+     * The default number of moves to go if the GUI does not send "movestogo".
+     */
+    private final static int MOVES_TO_GO = 30;
+
+    /**
+     * The time in ms kept back for the communication with the GUI.
+     */
+    private final static long MOVE_OVERHEAD = 50;
+
+    /**
+     * The maximum search depth of a "go" command without depth.
+     */
+    private final static int MAX_DEPTH = 64;
+
     public static Board board;
 
+    /**
+     * The {@link TranspositionTable} is kept between the moves of a game.
+     */
+    private static TranspositionTable transpositionTable;
+
+    /**
+     * The running {@link LazySmp} search or null; with one thread it runs a plain {@link Search}.
+     */
+    private static LazySmp search;
+
+    /**
+     * The thread of the running search or null.
+     */
+    private static Thread searchThread;
+
+    /**
+     * Released by "stop"; a "go infinite" search waits for it before it sends the best move.
+     */
+    private static CountDownLatch stopSignal;
+
     //-------------------------------------------------
     // Run
     //-------------------------------------------------
@@ -26,6 +63,9 @@ public class UCIClient {
         // title
         System.out.println(Config.TITLE);
 
+        transpositionTable = new TranspositionTable(Config.HASH_SIZE);
+        board = new Board();
+
         // read commands
         var keyboard = new Scanner(System.in);
 
@@ -45,15 +85,23 @@ public class UCIClient {
                     System.out.println("readyok");
                     break;
                 case "position":
+                    stopSearch();
                     parsePosition(input);
                     break;
                 case "ucinewgame":
+                    stopSearch();
+                    transpositionTable.clear();
                     parsePosition("position startpos");
                     break;
                 case "go":
+                    stopSearch();
                     parseGo(input);
                     break;
+                case "stop":
+                    stopSearch();
+                    break;
                 case "quit":
+                    stopSearch();
                     System.out.println("Good bye.");
                     exit = true;
                     break;
@@ -142,7 +190,172 @@ public class UCIClient {
         }
     }
 
-    private static void parseGo(String go) {
-        System.out.println("parseGo " + go);
+    //-------------------------------------------------
+    // Search
+    //-------------------------------------------------
+
+    /**
+     * Parse an UCI "go" command and start the search on its own thread, so that "stop" can be read.
+     *
+     * go depth 8
+     * go movetime 1000
+     * go nodes 100000
+     * go wtime 60000 btime 60000 winc 1000 binc 1000 movestogo 20
+     * go infinite
+     *
+     * @param command An UCI "go" command string.
+     */
+    private static void parseGo(String command) {
+        Objects.requireNonNull(board, "board must not be null");
+
+        var commands = command.split(" ");
+
+        var depth = MAX_DEPTH;
+        var moveTime = 0L;
+        var nodeLimit = 0L;
+        var time = 0L;
+        var increment = 0L;
+        var movesToGo = MOVES_TO_GO;
+        var white = board.getColorToMove() == Board.Color.WHITE;
+        var infinite = Arrays.asList(commands).contains("infinite");
+
+        for (var i = 1; i < commands.length - 1; i++) {
+            var value = commands[i + 1];
+
+            switch (commands[i]) {
+                case "depth":
+                    depth = Math.max(1, Math.min(Integer.parseInt(value), MAX_DEPTH));
+                    break;
+                case "movetime":
+                    moveTime = Long.parseLong(value);
+                    break;
+                case "nodes":
+                    nodeLimit = Long.parseLong(value);
+                    break;
+                case "wtime":
+                    time = white ? Long.parseLong(value) : time;
+                    break;
+                case "btime":
+                    time = white ? time : Long.parseLong(value);
+                    break;
+                case "winc":
+                    increment = white ? Long.parseLong(value) : increment;
+                    break;
+                case "binc":
+                    increment = white ? increment : Long.parseLong(value);
+                    break;
+                case "movestogo":
+                    movesToGo = Math.max(1, Integer.parseInt(value));
+                    break;
+                default:
+                    continue;
+            }
+
+            // skip the value
+            i++;
+        }
+
+        // the deadline is hard: the search unwinds and returns the last completed iteration
+        var timeLimit = moveTime;
+        if (time > 0) {
+            timeLimit = Math.min(time / movesToGo + increment / 2, time - MOVE_OVERHEAD);
+        }
+
+        if (moveTime > 0 || time > 0) {
+            timeLimit = Math.max(1, timeLimit);
+        }
+
+        var maxDepth = depth;
+        var maxTime = timeLimit;
+        var maxNodes = nodeLimit;
+        var currentSearch = new LazySmp(new Board(board), transpositionTable, Config.THREADS);
+
+        var currentStopSignal = new CountDownLatch(1);
+
+        search = currentSearch;
+        stopSignal = currentStopSignal;
+        searchThread = new Thread(() -> {
+            var result = currentSearch.search(maxDepth, maxTime, maxNodes);
+
+            // in infinite mode the best move must not be sent before "stop", e.g. after a proven mate
+            if (infinite) {
+                try {
+                    currentStopSignal.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            printResult(result);
+        }, "SgChess search");
+        searchThread.start();
+    }
+
+    /**
+     * Stops the running search and waits until the best move was printed.
+     */
+    private static void stopSearch() {
+        if (searchThread == null) {
+            return;
+        }
+
+        search.stop();
+        stopSignal.countDown();
+
+        try {
+            searchThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the search thread.", e);
+        }
+
+        search = null;
+        searchThread = null;
+        stopSignal = null;
+    }
+
+    /**
+     * Prints the UCI "info" and "bestmove" of a {@link SearchResult}.
+     *
+     * @param result A {@link SearchResult} or null.
+     */
+    private static void printResult(SearchResult result) {
+        if (result == null || result.bestMove == null) {
+            System.out.println("bestmove 0000");
+            return;
+        }
+
+        var score = "cp " + result.bestScore;
+        if (Math.abs(result.bestScore) >= SearchResult.MATE_SCORE - Search.MAX_PLY) {
+            var plies = SearchResult.MATE_SCORE - Math.abs(result.bestScore);
+            score = "mate " + (result.bestScore > 0 ? (plies + 1) / 2 : -(plies / 2));
+        }
+
+        var pv = new StringBuilder();
+        for (var packedMove : result.pv) {
+            pv.append(" ").append(toUciMove(new Move(packedMove)));
+        }
+
+        System.out.println("info depth " + result.depth + " score " + score + " nodes " + result.nodes +
+                " time " + result.time + " hashfull " + result.hashfull + " pv" + pv);
+        System.out.println("bestmove " + toUciMove(result.bestMove));
+    }
+
+    /**
+     * Returns the long algebraic notation of a {@link Move}, e.g. e2e4 or b7b8q.
+     *
+     * @param move A {@link Move} object.
+     *
+     * @return The move string.
+     */
+    private static String toUciMove(Move move) {
+        var uciMove = Bitboard.SQUARE_STRINGS[move.getFrom()] + Bitboard.SQUARE_STRINGS[move.getTo()];
+
+        if (move.getMoveFlag() == Move.MoveFlag.PROMOTION || move.getMoveFlag() == Move.MoveFlag.PROMOTION_CAPTURE) {
+            // indexed by the piece type value: knight, bishop, rook, queen
+            uciMove += "--nbrq".charAt(move.getPromotedPieceTypeValue());
+        }
+
+        return uciMove;
     }
 }
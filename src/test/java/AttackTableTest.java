@@ -0,0 +1,79 @@
+/*
+ * This file is part of the SgChess project.
+ * Copyright (c) 2021 stwe <https://github.com/stwe/SgChess>
+ * License: GNU GPLv2
+ */
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttackTableTest {
+
+    @Test
+    void init() {
+        var board = new Board();
+        var attackTable = new AttackTable(board);
+
+        // the knight on B1 attacks A3, C3 and D2
+        assertEquals(Attack.getKnightMoves(Bitboard.BitIndex.B1_IDX), attackTable.getAttacksFrom(Bitboard.BitIndex.B1_IDX.ordinal()));
+
+        // E3 is attacked by the pawns on D2 and F2
+        assertEquals(2, attackTable.getAttackCount(Board.Color.WHITE, Bitboard.BitIndex.E3_IDX.ordinal()));
+        assertFalse(attackTable.isAttackedBy(Board.Color.BLACK, Bitboard.BitIndex.E3_IDX.ordinal()));
+
+        assertFalse(attackTable.isCheck(Board.Color.WHITE));
+        assertFalse(attackTable.isCheck(Board.Color.BLACK));
+
+        // 14 pawn attacks + 4 knight moves
+        assertEquals(18, attackTable.getMobility(Board.Color.WHITE));
+    }
+
+    @Test
+    void update() {
+        // kiwipete: castling, en passant, promotions and pins
+        var board = new Board("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        board.setAttackTableEnabled(true);
+
+        walk(board, 3);
+
+        // the position after "3 ply make/undo" is restored
+        assertTableEquals(new AttackTable(board), board.getAttackTable());
+    }
+
+    //-------------------------------------------------
+    // Helper
+    //-------------------------------------------------
+
+    private static void walk(Board board, int depth) {
+        // the incrementally updated table must be equal to a recomputed one
+        assertTableEquals(new AttackTable(board), board.getAttackTable());
+        assertEquals(Attack.isCheck(board.getColorToMove(), board), board.isCheck(board.getColorToMove()));
+
+        if (depth == 0) {
+            return;
+        }
+
+        var moveGenerator = new MoveGenerator(board);
+        moveGenerator.generatePseudoLegalMoves();
+
+        for (var move : moveGenerator.getPseudoLegalMoves()) {
+            if (!board.makeMove(move)) {
+                assertTableEquals(new AttackTable(board), board.getAttackTable());
+                continue;
+            }
+
+            walk(board, depth - 1);
+
+            board.undoMove(move);
+        }
+    }
+
+    private static void assertTableEquals(AttackTable expected, AttackTable actual) {
+        for (var square = 0; square < 64; square++) {
+            assertEquals(expected.getAttacksFrom(square), actual.getAttacksFrom(square));
+            assertEquals(expected.getAttackCount(Board.Color.WHITE, square), actual.getAttackCount(Board.Color.WHITE, square));
+            assertEquals(expected.getAttackCount(Board.Color.BLACK, square), actual.getAttackCount(Board.Color.BLACK, square));
+        }
+    }
+}
@@ -165,4 +165,153 @@ class AttackTest {
                 )
         );
     }
+
+    @Test
+    void getBetweenAndLine() {
+        var a1 = Bitboard.BitIndex.A1_IDX.ordinal();
+        var h8 = Bitboard.BitIndex.H8_IDX.ordinal();
+        var e1 = Bitboard.BitIndex.E1_IDX.ordinal();
+        var e8 = Bitboard.BitIndex.E8_IDX.ordinal();
+        var c2 = Bitboard.BitIndex.C2_IDX.ordinal();
+
+        // diagonal
+        assertEquals(6, Bitboard.bitCount(Attack.getBetween(a1, h8)));
+        assertTrue(Bitboard.isBitSet(Attack.getBetween(a1, h8), Bitboard.BitIndex.D4_IDX));
+        assertFalse(Bitboard.isBitSet(Attack.getBetween(a1, h8), Bitboard.BitIndex.H8_IDX));
+        assertEquals(Attack.getBetween(a1, h8), Attack.getBetween(h8, a1));
+
+        // file
+        assertEquals(6, Bitboard.bitCount(Attack.getBetween(e1, e8)));
+        assertEquals(Bitboard.MASK_FILE_E, Attack.getLine(e1, e8));
+        assertEquals(Bitboard.MASK_FILE_E, Attack.getLine(Bitboard.BitIndex.E4_IDX.ordinal(), Bitboard.BitIndex.E5_IDX.ordinal()));
+
+        // neighbors and unaligned squares
+        assertEquals(0L, Attack.getBetween(e1, Bitboard.BitIndex.E2_IDX.ordinal()));
+        assertEquals(0L, Attack.getBetween(a1, c2));
+        assertEquals(0L, Attack.getLine(a1, c2));
+
+        assertTrue(Attack.areAligned(a1, h8, Bitboard.BitIndex.B2_IDX.ordinal()));
+        assertFalse(Attack.areAligned(a1, h8, c2));
+    }
+
+    @Test
+    void getCheckersAndPinnedPieces() {
+        // white knight d2 pinned by the bishop b4, black pawn f7 pinned by the queen h5, white rook e2 checks
+        var board = new Board("4k3/5p2/8/7Q/1b6/8/3NR3/4K3 b - - 0 1");
+
+        assertEquals(Bitboard.E2, Attack.getCheckers(Board.Color.BLACK, board));
+        assertEquals(0L, Attack.getCheckers(Board.Color.WHITE, board));
+
+        assertEquals(Bitboard.D2, Attack.getPinnedPieces(Board.Color.WHITE, board));
+        assertEquals(Bitboard.F7, Attack.getPinnedPieces(Board.Color.BLACK, board));
+
+        var checkInfo = new CheckInfo();
+        checkInfo.update(board);
+        assertTrue(checkInfo.isCheck());
+        assertFalse(checkInfo.isDoubleCheck());
+        assertEquals(Bitboard.D2, checkInfo.getPinnedPieces(Board.Color.WHITE));
+        assertEquals(Bitboard.F7, checkInfo.getPinnedPieces(Board.Color.BLACK));
+
+        // two pieces between: no pin
+        var noPin = new Board("4k3/8/8/8/1b6/2P5/3N4/4K3 w - - 0 1");
+        assertEquals(0L, Attack.getPinnedPieces(Board.Color.WHITE, noPin));
+    }
+
+    @Test
+    void getDiscoveredCheckCandidates() {
+        // the white knight on e4 blocks the rook e1, the black pawn c6 blocks nothing of its own
+        var board = new Board("4k3/8/2p5/8/4N3/8/8/K3R3 w - - 0 1");
+
+        assertEquals(Bitboard.E4, Attack.getDiscoveredCheckCandidates(Board.Color.WHITE, board));
+        assertEquals(0L, Attack.getDiscoveredCheckCandidates(Board.Color.BLACK, board));
+
+        // an enemy piece on the line is a pin candidate for the enemy, not a discovered check candidate
+        var enemyBlocker = new Board("4k3/8/8/8/4n3/8/8/K3R3 w - - 0 1");
+        assertEquals(0L, Attack.getDiscoveredCheckCandidates(Board.Color.WHITE, enemyBlocker));
+        assertEquals(Bitboard.E4, Attack.getPinnedPieces(Board.Color.BLACK, enemyBlocker));
+    }
+
+    @Test
+    void givesCheck() {
+        // kiwipete, discovered checks by en passant, promotions and castling into check
+        var fens = new String[]{
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                "5k2/8/8/8/8/8/8/4K2R w K - 0 1",
+                "8/8/8/K2pP2q/8/8/8/7k w - d6 0 1"
+        };
+
+        for (var fen : fens) {
+            walkGivesCheck(new Board(fen), 3);
+        }
+    }
+
+    @Test
+    void see() {
+        // undefended pawn
+        var b0 = new Board("1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1");
+        var m0 = b0.parseMove("e1e5");
+        assertEquals(100, Attack.see(m0, b0));
+        assertTrue(Attack.seeGreaterOrEqual(m0, b0, 100));
+        assertFalse(Attack.seeGreaterOrEqual(m0, b0, 101));
+
+        // knight takes pawn, long exchange with x-rays behind the rook e2 and the bishop f6
+        var b1 = new Board("1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1");
+        var m1 = b1.parseMove("d3e5");
+        assertEquals(-200, Attack.see(m1, b1));
+        assertTrue(Attack.seeGreaterOrEqual(m1, b1, -200));
+        assertFalse(Attack.seeGreaterOrEqual(m1, b1, -199));
+        assertFalse(Attack.seeGreaterOrEqual(m1, b1, 0));
+
+        // quiet queen move to a square attacked by a pawn
+        var b2 = new Board("4k3/8/8/3p4/8/3Q4/8/4K3 w - - 0 1");
+        var m2 = b2.parseMove("d3c4");
+        assertEquals(-1000, Attack.see(m2, b2));
+        assertFalse(Attack.seeGreaterOrEqual(m2, b2, 0));
+        var m3 = b2.parseMove("d3d4");
+        assertEquals(0, Attack.see(m3, b2));
+        assertTrue(Attack.seeGreaterOrEqual(m3, b2, 0));
+
+        // en passant
+        var b3 = new Board("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1");
+        var m4 = b3.parseMove("e5d6");
+        assertEquals(Move.MoveFlag.EN_PASSANT, m4.getMoveFlag());
+        assertEquals(100, Attack.see(m4, b3));
+
+        // the king cannot capture a defended piece
+        var b4 = new Board("4k3/8/8/8/8/2b5/3r4/4K3 w - - 0 1");
+        var m5 = b4.parseMove("e1d2");
+        assertTrue(Attack.see(m5, b4) < 0);
+        assertFalse(Attack.seeGreaterOrEqual(m5, b4, 1));
+    }
+
+    //-------------------------------------------------
+    // Helper
+    //-------------------------------------------------
+
+    private static void walkGivesCheck(Board board, int depth) {
+        var checkInfo = new CheckInfo();
+        checkInfo.update(board);
+
+        var moveGenerator = new MoveGenerator(board);
+        moveGenerator.generatePseudoLegalMoves();
+
+        for (var move : moveGenerator.getPseudoLegalMoves()) {
+            var givesCheck = checkInfo.givesCheck(move, board);
+
+            if (!board.makeMove(move)) {
+                continue;
+            }
+
+            assertEquals(Attack.isCheck(board.getColorToMove(), board), givesCheck, move.toString());
+
+            if (depth > 1) {
+                walkGivesCheck(board, depth - 1);
+            }
+
+            board.undoMove(move);
+        }
+    }
 }
@@ -6,6 +6,8 @@
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class BoardTest {
@@ -33,6 +35,84 @@ class BoardTest {
         assertNull(m3);
     }
 
+    @Test
+    void parseMoveMatchesGenerator() {
+        var fens = new String[] {
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 b kq - 0 1",
+                "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3"
+        };
+
+        var promotionLetters = Map.of(PieceType.QUEEN, "q", PieceType.ROOK, "r", PieceType.BISHOP, "b", PieceType.KNIGHT, "n");
+
+        for (var fen : fens) {
+            var board = new Board(fen);
+            var moveGenerator = new MoveGenerator(board);
+            moveGenerator.generatePseudoLegalMoves();
+
+            // every generated move is decoded to the same move
+            for (var move : moveGenerator.getPseudoLegalMoves()) {
+                var input = Bitboard.SQUARE_STRINGS[move.getFrom()] + Bitboard.SQUARE_STRINGS[move.getTo()];
+                if (move.getMoveFlag() == Move.MoveFlag.PROMOTION || move.getMoveFlag() == Move.MoveFlag.PROMOTION_CAPTURE) {
+                    input += promotionLetters.get(move.getPromotedPieceType());
+                }
+
+                var parsedMove = board.parseMove(input);
+                assertNotNull(parsedMove, input);
+                assertEquals(move.getPiece(), parsedMove.getPiece(), input);
+                assertEquals(move.getMoveFlag(), parsedMove.getMoveFlag(), input);
+                assertEquals(move.getCapturedPieceType(), parsedMove.getCapturedPieceType(), input);
+                assertEquals(move.getPromotedPieceType(), parsedMove.getPromotedPieceType(), input);
+            }
+        }
+
+        // not pseudo legal
+        var board = new Board();
+        assertNull(board.parseMove("e2e5"));
+        assertNull(board.parseMove("e7e5"));
+        assertNull(board.parseMove("a1a3"));
+        assertNull(board.parseMove("b1d2"));
+        assertNull(board.parseMove("e1g1"));
+        assertNull(board.parseMove("e2e4q"));
+
+        var promotionBoard = new Board("k7/4P3/1p6/8/8/8/8/K7 w - - 0 1");
+        assertNull(promotionBoard.parseMove("e7e8"));
+    }
+
+    @Test
+    void copy() {
+        var board = new Board("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        var copy = new Board(board);
+
+        assertEquals(board.getZkey(), copy.getZkey());
+        assertArrayEquals(board.getBitboards(), copy.getBitboards());
+        assertEquals(board.getCastlingRights(), copy.getCastlingRights());
+
+        // the copy is independent
+        assertTrue(copy.makeMove(copy.parseMove("e1g1")));
+        assertNotEquals(board.getZkey(), copy.getZkey());
+        assertEquals(Piece.WHITE_KING, board.getPieceFrom(Bitboard.BitIndex.E1_IDX));
+        assertEquals(Piece.WHITE_KING, copy.getPieceFrom(Bitboard.BitIndex.G1_IDX));
+    }
+
+    @Test
+    void nullMove() {
+        var board = new Board("rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 2");
+        var zkey = board.getZkey();
+
+        var state = board.makeNullMove();
+        assertEquals(Board.Color.BLACK, board.getColorToMove());
+        assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getEpIndex());
+        assertEquals(1, board.getHalfMovesCounter());
+        assertEquals(new Board("rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR b KQkq - 1 2").getZkey(), board.getZkey());
+
+        board.undoNullMove(state);
+        assertEquals(Board.Color.WHITE, board.getColorToMove());
+        assertEquals(Bitboard.BitIndex.D6_IDX, board.getEpIndex());
+        assertEquals(0, board.getHalfMovesCounter());
+        assertEquals(zkey, board.getZkey());
+    }
+
     @Test
     void isNeighborAnEnemyPawn() {
         var board = new Board("k7/8/8/8/1P1pPp2/p1P5/8/7K w - - 0 1");
@@ -203,7 +283,6 @@ class BoardTest {
 
         // before pawn start move
         assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getEpIndex());
-        assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getOldEpIndex());
 
         // b2b4 make white pawn start move
         assertEquals(Board.Color.WHITE, board.getColorToMove());
@@ -214,12 +293,11 @@ class BoardTest {
 
         // after pawn start move
         assertEquals(Bitboard.BitIndex.B3_IDX, board.getEpIndex());
-        assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getOldEpIndex());
+        assertEquals(Bitboard.BitIndex.NO_SQUARE, startMoves.get(1).getPreviousEpIndex());
 
         // undo pawn start move
         board.undoMove(startMoves.get(1));
         assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getEpIndex());
-        assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getOldEpIndex());
         assertEquals(startKey, board.getZkey());
     }
 
@@ -230,7 +308,6 @@ class BoardTest {
 
         // before pawn start move
         assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getEpIndex());
-        assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getOldEpIndex());
 
         // g7g5 make black pawn start move
         assertEquals(Board.Color.BLACK, board.getColorToMove());
@@ -241,12 +318,11 @@ class BoardTest {
 
         // after pawn start move
         assertEquals(Bitboard.BitIndex.G6_IDX, board.getEpIndex());
-        assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getOldEpIndex());
+        assertEquals(Bitboard.BitIndex.NO_SQUARE, startMoves.get(1).getPreviousEpIndex());
 
         // undo pawn start move
         board.undoMove(startMoves.get(1));
         assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getEpIndex());
-        assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getOldEpIndex());
         assertEquals(startKey, board.getZkey());
     }
 
@@ -254,7 +330,6 @@ class BoardTest {
     void makeEpMoveWhite() {
         var board = new Board("k7/8/8/8/p7/8/1P6/7K w - - 0 1");
         assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getEpIndex());
-        assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getOldEpIndex());
 
         // b2b4 make white pawn start move
         assertEquals(Board.Color.WHITE, board.getColorToMove());
@@ -266,7 +341,7 @@ class BoardTest {
 
         // after pawn start move
         assertEquals(Bitboard.BitIndex.B3_IDX, board.getEpIndex());
-        assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getOldEpIndex());
+        assertEquals(Bitboard.BitIndex.NO_SQUARE, startMoves.get(1).getPreviousEpIndex());
 
         // ---------------------------------------------------------------
 
@@ -282,13 +357,12 @@ class BoardTest {
         // after capture white pawn
         assertEquals(Board.Color.WHITE, board.getColorToMove());
         assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getEpIndex());
-        assertEquals(Bitboard.BitIndex.B3_IDX, board.getOldEpIndex());
+        assertEquals(Bitboard.BitIndex.B3_IDX, epMove.getPreviousEpIndex());
 
         // undo capture (a4b3)
         board.undoMove(epMove);
         assertEquals(Board.Color.BLACK, board.getColorToMove());
         assertEquals(Bitboard.BitIndex.B3_IDX, board.getEpIndex());       // same situation after pawn start
-        assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getOldEpIndex()); // same situation after pawn start
         assertEquals(pawnStartKey, board.getZkey());
 
         // ---------------------------------------------------------------
@@ -304,13 +378,12 @@ class BoardTest {
         // after a4a3
         assertEquals(Board.Color.WHITE, board.getColorToMove());
         assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getEpIndex());
-        assertEquals(Bitboard.BitIndex.B3_IDX, board.getOldEpIndex());
+        assertEquals(Bitboard.BitIndex.B3_IDX, otherMoves.get(1).getPreviousEpIndex());
 
         // undo a4a3
         board.undoMove(otherMoves.get(1));
         assertEquals(Board.Color.BLACK, board.getColorToMove());
         assertEquals(Bitboard.BitIndex.B3_IDX, board.getEpIndex());       // same situation after pawn start
-        assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getOldEpIndex()); // same situation after pawn start
         assertEquals(pawnStartKey, board.getZkey());
     }
 
@@ -318,7 +391,6 @@ class BoardTest {
     void makeEpMoveBlack() {
         var board = new Board("k7/2P3p1/8/7P/8/8/8/7K b - - 0 1");
         assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getEpIndex());
-        assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getOldEpIndex());
 
         // g7g5 make black pawn start move
         assertEquals(Board.Color.BLACK, board.getColorToMove());
@@ -330,7 +402,7 @@ class BoardTest {
 
         // after pawn start move
         assertEquals(Bitboard.BitIndex.G6_IDX, board.getEpIndex());
-        assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getOldEpIndex());
+        assertEquals(Bitboard.BitIndex.NO_SQUARE, startMoves.get(1).getPreviousEpIndex());
 
         // ---------------------------------------------------------------
 
@@ -346,13 +418,12 @@ class BoardTest {
         // after capture black pawn
         assertEquals(Board.Color.BLACK, board.getColorToMove());
         assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getEpIndex());
-        assertEquals(Bitboard.BitIndex.G6_IDX, board.getOldEpIndex());
+        assertEquals(Bitboard.BitIndex.G6_IDX, epMove.getPreviousEpIndex());
 
         // undo capture (h5g6)
         board.undoMove(epMove);
         assertEquals(Board.Color.WHITE, board.getColorToMove());
         assertEquals(Bitboard.BitIndex.G6_IDX, board.getEpIndex());       // same situation after pawn start
-        assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getOldEpIndex()); // same situation after pawn start
         assertEquals(pawnStartKey, board.getZkey());
 
         // ---------------------------------------------------------------
@@ -368,16 +439,67 @@ class BoardTest {
         // after c7c8
         assertEquals(Board.Color.BLACK, board.getColorToMove());
         assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getEpIndex());
-        assertEquals(Bitboard.BitIndex.G6_IDX, board.getOldEpIndex());
+        assertEquals(Bitboard.BitIndex.G6_IDX, otherMoves.get(5).getPreviousEpIndex());
 
         // undo c7c8 promotion move
         board.undoMove(otherMoves.get(5));
         assertEquals(Board.Color.WHITE, board.getColorToMove());
         assertEquals(Bitboard.BitIndex.G6_IDX, board.getEpIndex());       // same situation after pawn start
-        assertEquals(Bitboard.BitIndex.NO_SQUARE, board.getOldEpIndex()); // same situation after pawn start
         assertEquals(pawnStartKey, board.getZkey());
     }
 
+    @Test
+    void keyAfter() {
+        // kiwipete, wiki position 3 (ep pins) and wiki position 4 (promotions, castling rights)
+        var fens = new String[] {
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1"
+        };
+
+        for (var fen : fens) {
+            var board = new Board(fen);
+            var key = board.getZkey();
+
+            walkKeyAfter(board, 3);
+
+            // nested make/undo restores the key
+            assertEquals(key, board.getZkey());
+        }
+    }
+
+    private static void walkKeyAfter(Board board, int depth) {
+        // the incrementally updated key must be equal to a recomputed one
+        var key = board.getZkey();
+        Zkey.createKey(board);
+        assertEquals(board.getZkey(), key);
+
+        if (depth == 0) {
+            return;
+        }
+
+        var moveGenerator = new MoveGenerator(board);
+        moveGenerator.generatePseudoLegalMoves();
+
+        for (var move : moveGenerator.getPseudoLegalMoves()) {
+            var predictedKey = board.keyAfter(move);
+
+            // the board is not changed
+            assertEquals(key, board.getZkey());
+
+            if (!board.makeMove(move)) {
+                continue;
+            }
+
+            assertEquals(predictedKey, board.getZkey());
+
+            walkKeyAfter(board, depth - 1);
+
+            board.undoMove(move);
+            assertEquals(key, board.getZkey());
+        }
+    }
+
     //-------------------------------------------------
     // Perft test
     //-------------------------------------------------
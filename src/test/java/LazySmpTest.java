@@ -0,0 +1,77 @@
+/*
+ * This file is part of the SgChess project.
+ * Copyright (c) 2021 stwe <https://github.com/stwe/SgChess>
+ * License: GNU GPLv2
+ */
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazySmpTest {
+
+    @Test
+    void search() {
+        var board = new Board("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        var key = board.getZkey();
+
+        var result = new LazySmp(board, new TranspositionTable(16), 4).search(3, 0, 0);
+
+        assertEquals(3, result.depth);
+        assertNotNull(result.bestMove);
+        assertTrue(new Board(board).makeMove(result.bestMove));
+
+        // the root position is not changed
+        assertEquals(key, board.getZkey());
+    }
+
+    @Test
+    void mate() {
+        var result = new LazySmp(new Board("1k6/8/1K6/8/8/8/8/7R w - - 0 1"), new TranspositionTable(16), 3).search(3, 0, 0);
+
+        assertEquals(SearchResult.MATE_SCORE - 1, result.bestScore);
+        assertEquals(Bitboard.BitIndex.H8_IDX.ordinal(), result.bestMove.getTo());
+    }
+
+    @Test
+    void timeLimit() {
+        // the search can only end by the deadline
+        var result = new LazySmp(new Board(), new TranspositionTable(16), 2).search(64, 200, 0);
+
+        assertNotNull(result.bestMove);
+        assertTrue(result.depth >= 1 && result.depth < 64);
+
+        // the node budget applies to the main thread
+        var nodeResult = new LazySmp(new Board(), new TranspositionTable(16), 2).search(64, 0, 50000);
+
+        assertNotNull(nodeResult.bestMove);
+        assertTrue(nodeResult.depth >= 1 && nodeResult.depth < 64);
+    }
+
+    @Test
+    void stop() throws InterruptedException {
+        var lazySmp = new LazySmp(new Board(), new TranspositionTable(16), 2);
+        var stopper = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            lazySmp.stop();
+        });
+
+        // the search can only end by the stop request
+        stopper.start();
+        var result = lazySmp.search(64, 0, 0);
+        stopper.join();
+
+        assertNotNull(result.bestMove);
+        assertTrue(result.depth >= 1 && result.depth < 64);
+
+        // a stop before the search is not lost
+        var stoppedLazySmp = new LazySmp(new Board(), new TranspositionTable(16), 2);
+        stoppedLazySmp.stop();
+        assertEquals(1, stoppedLazySmp.search(64, 0, 0).depth);
+    }
+}
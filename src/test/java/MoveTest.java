@@ -33,4 +33,22 @@ class MoveTest {
         move.setPreviousCastlingRights(Bitboard.BLACK_KING_CASTLE_QUEEN_SIDE);
         assertEquals(Bitboard.BLACK_KING_CASTLE_QUEEN_SIDE, move.getPreviousCastlingRights());
     }
+
+    @Test
+    void packedMove() {
+        var move = new Move(Piece.WHITE_PAWN, Bitboard.BitIndex.E7_IDX, Bitboard.BitIndex.D8_IDX);
+        move.setMoveFlag(Move.MoveFlag.PROMOTION_CAPTURE);
+        move.setCapturedPieceType(PieceType.ROOK);
+        move.setPromotedPieceType(PieceType.QUEEN);
+
+        var copy = new Move(move.getPackedMove());
+
+        assertEquals(move.getPackedMove(), copy.getPackedMove());
+        assertEquals(Piece.WHITE_PAWN, copy.getPiece());
+        assertEquals(Bitboard.BitIndex.E7_IDX.ordinal(), copy.getFrom());
+        assertEquals(Bitboard.BitIndex.D8_IDX.ordinal(), copy.getTo());
+        assertEquals(Move.MoveFlag.PROMOTION_CAPTURE, copy.getMoveFlag());
+        assertEquals(PieceType.ROOK, copy.getCapturedPieceType());
+        assertEquals(PieceType.QUEEN, copy.getPromotedPieceType());
+    }
 }
@@ -0,0 +1,412 @@
+/*
+ * This file is part of the SgChess project.
+ * Copyright (c) 2021 stwe <https://github.com/stwe/SgChess>
+ * License: GNU GPLv2
+ */
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchTest {
+
+    private static final String[] FENS = {
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R b KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"
+    };
+
+    private final Map<Field, Object> savedConfig = new HashMap<>();
+
+    @Test
+    void alphaBetaEqualsMinimax() {
+        // minimax has no quiescence search, no pruning and no extensions
+        Config.QUIESCENCE = false;
+        Config.FRONTIER_PRUNING = false;
+        Config.SEE_PRUNING = false;
+        Config.CHECK_EXTENSIONS = false;
+        assertAlphaBetaEqualsMinimax();
+    }
+
+    private static void assertAlphaBetaEqualsMinimax() {
+        for (var fen : FENS) {
+            for (var depth = 1; depth <= 3; depth++) {
+                var minimaxResult = new Search(new Board(fen)).minimaxRoot(depth);
+                var alphaBetaResult = new Search(new Board(fen)).alphaBetaRoot(depth);
+
+                assertEquals(minimaxResult.bestScore, alphaBetaResult.bestScore, fen + " depth " + depth);
+                assertEquals(minimaxResult.bestMove.getFrom(), alphaBetaResult.bestMove.getFrom(), fen + " depth " + depth);
+                assertEquals(minimaxResult.bestMove.getTo(), alphaBetaResult.bestMove.getTo(), fen + " depth " + depth);
+
+                if (depth > 1) {
+                    assertTrue(alphaBetaResult.nodes < minimaxResult.nodes);
+                }
+            }
+        }
+    }
+
+    @Test
+    void iterativeDeepening() {
+        for (var fen : FENS) {
+            // depth budget; the frontier pruning and the deeper nodes of the check extensions depend
+            // on the move order, so they would change the scores
+            Config.FRONTIER_PRUNING = false;
+            Config.CHECK_EXTENSIONS = false;
+            var result = new Search(new Board(fen)).iterativeDeepening(3, 0, 0);
+            var alphaBetaResult = new Search(new Board(fen)).alphaBetaRoot(3);
+            assertEquals(3, result.depth);
+            assertEquals(alphaBetaResult.bestScore, result.bestScore);
+            restoreConfig();
+
+            // node budget
+            var nodeResult = new Search(new Board(fen)).iterativeDeepening(64, 0, 50000);
+            assertNotNull(nodeResult.bestMove);
+            assertTrue(nodeResult.depth >= 1 && nodeResult.depth < 64);
+            assertTrue(nodeResult.nodes <= 50000);
+
+            // time budget; the search can only end by the deadline
+            var timeResult = new Search(new Board(fen)).iterativeDeepening(64, 200, 0);
+            assertNotNull(timeResult.bestMove);
+            assertTrue(timeResult.depth >= 1 && timeResult.depth < 64);
+        }
+    }
+
+    @Test
+    void stop() throws InterruptedException {
+        // iterative deepening returns the last completed iteration
+        var search = new Search(new Board(FENS[0]));
+        var stopper = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            search.stop();
+        });
+
+        // the search can only end by the stop request
+        stopper.start();
+        var result = search.iterativeDeepening(64, 0, 0);
+        stopper.join();
+
+        assertNotNull(result.bestMove);
+        assertTrue(result.depth >= 1 && result.depth < 64);
+
+        // the result of an interrupted fixed depth search is incomplete
+        var minimaxSearch = new Search(new Board(FENS[0]));
+        var minimaxStopper = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            minimaxSearch.stop();
+        });
+
+        minimaxStopper.start();
+        assertNull(minimaxSearch.minimaxRoot(8));
+        minimaxStopper.join();
+
+        // a stop before the search is not lost, but the first iteration is completed
+        var stoppedSearch = new Search(new Board(FENS[0]));
+        stoppedSearch.stop();
+        result = stoppedSearch.iterativeDeepening(7, 0, 0);
+        assertNotNull(result.bestMove);
+        assertEquals(1, result.depth);
+
+        // until the search is reset
+        stoppedSearch.reset();
+        assertEquals(3, stoppedSearch.iterativeDeepening(3, 0, 0).depth);
+
+        // the budget is hard: the last iteration is interrupted, not completed
+        var nodeLimit = (new Search(new Board(FENS[0])).iterativeDeepening(4, 0, 0).nodes +
+                new Search(new Board(FENS[0])).iterativeDeepening(5, 0, 0).nodes) / 2;
+        result = new Search(new Board(FENS[0])).iterativeDeepening(5, 0, nodeLimit);
+        assertNotNull(result.bestMove);
+        assertEquals(4, result.depth);
+    }
+
+    @Test
+    void moveOrdering() {
+        // without move ordering kiwipete needed about 930000 nodes for depth 4
+        var result = new Search(new Board(FENS[0])).iterativeDeepening(4, 0, 0);
+        assertEquals(4, result.depth);
+        assertTrue(result.nodes < 200000);
+    }
+
+    @Test
+    void nullMovePruning() {
+        var pawnEnding = "8/8/1p2k3/8/2P5/8/4K3/8 w - - 0 1";
+        var result = new Search(new Board()).iterativeDeepening(6, 0, 0);
+        var pawnEndingResult = new Search(new Board(pawnEnding)).iterativeDeepening(6, 0, 0);
+
+        Config.NULL_MOVE_PRUNING = false;
+        var fullWidthResult = new Search(new Board()).iterativeDeepening(6, 0, 0);
+        assertTrue(result.nodes < fullWidthResult.nodes);
+
+        // no null moves in pawn endings because of zugzwang
+        var fullWidthPawnEndingResult = new Search(new Board(pawnEnding)).iterativeDeepening(6, 0, 0);
+        assertEquals(fullWidthPawnEndingResult.nodes, pawnEndingResult.nodes);
+        restoreConfig();
+
+        // zugzwang: only Kh6 keeps the rook; the verification search finds it despite the null moves
+        var zugzwang = "1q1k4/2Rr4/8/2Q3K1/8/8/8/8 w - - 0 1";
+        assertBestMove(zugzwang, 11, "g5h6");
+    }
+
+    @Test
+    void lateMoveReductions() {
+        var result = new Search(new Board(FENS[0])).iterativeDeepening(5, 0, 0);
+
+        Config.LATE_MOVE_REDUCTIONS = false;
+        var fullDepthResult = new Search(new Board(FENS[0])).iterativeDeepening(5, 0, 0);
+        assertTrue(result.nodes < fullDepthResult.nodes);
+        restoreConfig();
+
+        // the quiet Rb7 wins the pawn on a7, although it is not ordered first
+        assertBestMove("7k/p7/1R5K/6r1/6p1/6P1/8/8 w - - 0 1", 8, "b6b7");
+    }
+
+    @Test
+    void frontierPruning() {
+        var result = new Search(new Board(FENS[0])).iterativeDeepening(6, 0, 0);
+
+        Config.FRONTIER_PRUNING = false;
+        var unprunedResult = new Search(new Board(FENS[0])).iterativeDeepening(6, 0, 0);
+        assertTrue(result.nodes < unprunedResult.nodes);
+        restoreConfig();
+
+        // the queen sacrifice Qxh7+ mates in two; the quiet mating moves near the leaves are not pruned
+        var mateResult = assertBestMove("r1bq2rk/pp3pbp/2p1p1pQ/7P/3P4/2PB1N2/PP3PPR/2KR4 w - - 0 1", 6, "h6h7");
+        assertEquals(SearchResult.MATE_SCORE - 3, mateResult.bestScore);
+
+        // Bxc6 wins the queen
+        assertBestMove("r1b1kb1r/3q1ppp/pBp1pn2/8/Np3P2/5B2/PPP3PP/R2Q1RK1 w kq - 0 1", 7, "f3c6");
+    }
+
+    @Test
+    void seePruning() {
+        var result = new Search(new Board(FENS[0])).iterativeDeepening(5, 0, 0);
+
+        Config.SEE_PRUNING = false;
+        var unprunedResult = new Search(new Board(FENS[0])).iterativeDeepening(5, 0, 0);
+        assertTrue(result.qnodes < unprunedResult.qnodes);
+        restoreConfig();
+
+        // Qg6 mates, although the queen moves to a square attacked by the pawn on f7
+        var mateResult = assertBestMove("2rr3k/pp3pp1/1nnqbN1p/3pN3/2pP4/2P3Q1/PPB4P/R4RK1 w - - 0 1", 9, "g3g6");
+        assertEquals(SearchResult.MATE_SCORE - 3, mateResult.bestScore);
+    }
+
+    @Test
+    void probCut() {
+        var result = new Search(new Board(FENS[0])).iterativeDeepening(7, 0, 0);
+        assertTrue(result.probCutAttempts > 0);
+        assertTrue(result.probCutHits > 0);
+        assertTrue(result.probCutHits <= result.probCutAttempts);
+
+        Config.PROBCUT = false;
+        var noProbCutResult = new Search(new Board(FENS[0])).iterativeDeepening(7, 0, 0);
+        assertEquals(0, noProbCutResult.probCutAttempts);
+        restoreConfig();
+
+        // Qxh7+ mates; the deep cut nodes of the mating line are not cut off by ProbCut
+        var mateResult = assertBestMove("r2rb1k1/pp1q1p1p/2n1p1p1/2bp4/5P2/PP1BPR1Q/1BPN2PP/R5K1 w - - 0 1", 11, "h3h7");
+        assertTrue(mateResult.bestScore >= SearchResult.MATE_SCORE - Search.MAX_PLY);
+    }
+
+    @Test
+    void singularExtensions() {
+        // Ne3 wins the queen, because fxe3 allows Qh4+
+        var fen = "rnbqkb1r/pppp1ppp/8/4P3/6n1/7P/PPPNPPP1/R1BQKBNR b KQkq - 0 1";
+        var result = new Search(new Board(fen)).iterativeDeepening(11, 0, 0);
+        assertEquals(Bitboard.BitIndex.E3_IDX.ordinal(), result.bestMove.getTo());
+        assertEquals(Bitboard.BitIndex.G4_IDX.ordinal(), result.bestMove.getFrom());
+
+        // the nodes from Config.SINGULAR_MIN_DEPTH have extended singular moves and cut off by multi-cut
+        assertTrue(result.singularExtensions > 0);
+        assertTrue(result.multiCuts > 0);
+
+        // singular extensions are reached at the default search depth
+        var defaultDepthResult = new Search(new Board(fen)).iterativeDeepening(Config.SEARCH_DEPTH, 0, 0);
+        assertTrue(defaultDepthResult.singularExtensions > 0);
+
+        Config.SINGULAR_EXTENSIONS = false;
+        var unextendedResult = new Search(new Board(fen)).iterativeDeepening(11, 0, 0);
+        assertEquals(0, unextendedResult.singularExtensions + unextendedResult.multiCuts);
+
+        // the extended singular moves are searched deeper
+        assertTrue(result.nodes > unextendedResult.nodes);
+    }
+
+    @Test
+    void internalIterative() {
+        var results = new SearchResult[Search.InternalIterative.values().length];
+        for (var mode : Search.InternalIterative.values()) {
+            Config.INTERNAL_ITERATIVE = mode;
+            // the PV and cut nodes without a move of the transposition table are deep enough at depth 8
+            var result = new Search(new Board(FENS[0])).iterativeDeepening(8, 0, 0);
+            assertEquals(8, result.depth, mode.name());
+            assertNotNull(result.bestMove, mode.name());
+            results[mode.ordinal()] = result;
+        }
+
+        var none = results[Search.InternalIterative.NONE.ordinal()];
+        var iid = results[Search.InternalIterative.IID.ordinal()];
+        var iir = results[Search.InternalIterative.IIR.ordinal()];
+
+        // only the configured mode is active
+        assertEquals(0, none.iidMoves + none.iirReductions);
+        assertTrue(iid.iidMoves > 0);
+        assertEquals(0, iid.iirReductions);
+        assertTrue(iir.iirReductions > 0);
+        assertEquals(0, iir.iidMoves);
+
+        // the reduced nodes make the search smaller
+        assertTrue(iir.nodes < none.nodes);
+    }
+
+    @Test
+    void aspirationWindows() {
+        // a window of 1 cp fails in almost every iteration
+        Config.ASPIRATION_WINDOW = 1;
+        var result = new Search(new Board(FENS[0])).iterativeDeepening(6, 0, 0);
+        assertEquals(6, result.depth);
+        assertTrue(result.aspirationFailLows + result.aspirationFailHighs > 0);
+
+        // 0 always searches with a full window
+        Config.ASPIRATION_WINDOW = 0;
+        var fullWindowResult = new Search(new Board(FENS[0])).iterativeDeepening(6, 0, 0);
+        assertEquals(0, fullWindowResult.aspirationFailLows + fullWindowResult.aspirationFailHighs);
+
+        // the Qg6 mate is found at depth 9; the swing to the mate score opens the window at once and
+        // each side of the window fails at most ASPIRATION_MAX_FAILS times in each of the iterations 4 to 9
+        Config.ASPIRATION_WINDOW = 1;
+        var mateResult = new Search(new Board("2rr3k/pp3pp1/1nnqbN1p/3pN3/2pP4/2P3Q1/PPB4P/R4RK1 w - - 0 1")).iterativeDeepening(9, 0, 0);
+        assertEquals(SearchResult.MATE_SCORE - 3, mateResult.bestScore);
+        assertTrue(mateResult.aspirationFailLows + mateResult.aspirationFailHighs <= 2 * Search.ASPIRATION_MAX_FAILS * 6);
+    }
+
+    @Test
+    void principalVariation() {
+        for (var fen : FENS) {
+            var board = new Board(fen);
+            var result = new Search(new Board(fen)).iterativeDeepening(6, 0, 0);
+
+            assertTrue(result.pv.length > 1, fen);
+            assertEquals(result.bestMove.getPackedMove(), result.pv[0], fen);
+
+            // the principal variation is a sequence of legal moves
+            for (var packedMove : result.pv) {
+                assertTrue(board.makeMove(new Move(packedMove)), fen);
+            }
+        }
+
+        // the mate in two is the full principal variation
+        var mateResult = new Search(new Board("1k6/8/2K5/8/8/8/8/7R w - - 0 1")).iterativeDeepening(64, 0, 0);
+        assertEquals(3, mateResult.pv.length);
+    }
+
+    @Test
+    void allocations() {
+        var threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var threadId = Thread.currentThread().getId();
+
+        // warm up, so that class loading and the first compilations are not counted
+        new Search(new Board(FENS[0])).iterativeDeepening(5, 0, 0);
+
+        var search = new Search(new Board(FENS[0]));
+        var allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId);
+        var result = search.iterativeDeepening(7, 0, 0);
+        allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBytes;
+
+        // only the root moves and the results of the iterations are allocated, nothing per node
+        assertTrue(allocatedBytes < result.nodes, allocatedBytes + " bytes for " + result.nodes + " nodes");
+    }
+
+    @Test
+    void quiescence() {
+        // the pawn on d5 is defended; Qxd5 loses the queen after the horizon of depth 1
+        var result = new Search(new Board("4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1")).alphaBetaRoot(1);
+        assertNotEquals(Bitboard.BitIndex.D5_IDX.ordinal(), result.bestMove.getTo());
+        assertTrue(result.qnodes > 0);
+        assertTrue(result.qnodes < result.nodes);
+
+        // with check evasions the quiescence search recognizes the mate after Rh8
+        Config.QUIESCENCE_CHECK_EVASIONS = true;
+        var mateResult = new Search(new Board("1k6/8/1K6/8/8/8/8/7R w - - 0 1")).alphaBetaRoot(1);
+        assertEquals(SearchResult.MATE_SCORE - 1, mateResult.bestScore);
+    }
+
+    @Test
+    void mate() {
+        // white mates with Rh8; the score of a mate in one ply is one below the mate score
+        var whiteResult = new Search(new Board("1k6/8/1K6/8/8/8/8/7R w - - 0 1")).alphaBetaRoot(3);
+        assertEquals(SearchResult.MATE_SCORE - 1, whiteResult.bestScore);
+        assertEquals(Bitboard.BitIndex.H8_IDX.ordinal(), whiteResult.bestMove.getTo());
+
+        // black mates with Rh1
+        var blackResult = new Search(new Board("7r/8/8/8/8/1k6/8/1K6 b - - 0 1")).alphaBetaRoot(3);
+        assertEquals(SearchResult.MATE_SCORE - 1, blackResult.bestScore);
+        assertEquals(Bitboard.BitIndex.H1_IDX.ordinal(), blackResult.bestMove.getTo());
+
+        // black is mated
+        var matedResult = new Search(new Board("1k5R/8/1K6/8/8/8/8/8 b - - 0 1")).alphaBetaRoot(1);
+        assertEquals(-SearchResult.MATE_SCORE, matedResult.bestScore);
+        assertNull(matedResult.bestMove);
+    }
+
+    @Test
+    void mateDistance() {
+        // mate in two with Ra1 and Rh8; the search stops as soon as the mate is proven
+        var result = new Search(new Board("1k6/8/2K5/8/8/8/8/7R w - - 0 1")).iterativeDeepening(64, 0, 0);
+        assertEquals(SearchResult.MATE_SCORE - 3, result.bestScore);
+        assertTrue(result.depth < 64);
+    }
+
+    //-------------------------------------------------
+    // Helper
+    //-------------------------------------------------
+
+    private static SearchResult assertBestMove(String fen, int depth, String expectedMove) {
+        var board = new Board(fen);
+        var expected = board.parseMove(expectedMove);
+        var result = new Search(board).iterativeDeepening(depth, 0, 0);
+
+        assertEquals(expected.getFrom(), result.bestMove.getFrom(), fen);
+        assertEquals(expected.getTo(), result.bestMove.getTo(), fen);
+
+        return result;
+    }
+
+    @BeforeEach
+    void saveConfig() {
+        try {
+            for (var field : Config.class.getDeclaredFields()) {
+                savedConfig.put(field, field.get(null));
+            }
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Unable to save the config.", e);
+        }
+    }
+
+    @AfterEach
+    void restoreConfig() {
+        try {
+            for (var entry : savedConfig.entrySet()) {
+                entry.getKey().set(null, entry.getValue());
+            }
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Unable to restore the config.", e);
+        }
+    }
+}
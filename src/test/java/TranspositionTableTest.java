@@ -0,0 +1,69 @@
+/*
+ * This file is part of the SgChess project.
+ * Copyright (c) 2021 stwe <https://github.com/stwe/SgChess>
+ * License: GNU GPLv2
+ */
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+
+    @Test
+    void getSize() {
+        // 1 MB with 16 bytes per entry
+        assertEquals(65536, new TranspositionTable(1).getSize());
+        assertEquals(65536 * 2, new TranspositionTable(3).getSize());
+    }
+
+    @Test
+    void storeAndProbe() {
+        var transpositionTable = new TranspositionTable(1);
+        var key = new Board().getZkey();
+
+        assertEquals(0L, transpositionTable.probe(key));
+
+        var move = new Board().parseMove("e2e4").getShortMove();
+        transpositionTable.store(key, move, -1234, 7, TranspositionTable.BOUND_LOWER);
+
+        var data = transpositionTable.probe(key);
+        assertEquals(move, TranspositionTable.getMove(data));
+        assertEquals(-1234, TranspositionTable.getScore(data));
+        assertEquals(7, TranspositionTable.getDepth(data));
+        assertEquals(TranspositionTable.BOUND_LOWER, TranspositionTable.getBound(data));
+
+        // same index, other key
+        assertEquals(0L, transpositionTable.probe(key ^ (1L << 40)));
+
+        // a shallower result of the same position keeps the entry
+        transpositionTable.store(key, 0, 50, 3, TranspositionTable.BOUND_UPPER);
+        assertEquals(7, TranspositionTable.getDepth(transpositionTable.probe(key)));
+
+        // a deeper result without move keeps the move
+        transpositionTable.store(key, 0, 60, 9, TranspositionTable.BOUND_UPPER);
+        data = transpositionTable.probe(key);
+        assertEquals(9, TranspositionTable.getDepth(data));
+        assertEquals(move, TranspositionTable.getMove(data));
+    }
+
+    @Test
+    void getHashfull() {
+        var transpositionTable = new TranspositionTable(1);
+        assertEquals(0, transpositionTable.getHashfull());
+
+        transpositionTable.newSearch();
+        for (var i = 0L; i < 500; i++) {
+            transpositionTable.store(i, 0, 0, 1, TranspositionTable.BOUND_EXACT);
+        }
+
+        assertEquals(500, transpositionTable.getHashfull());
+
+        // entries of older searches are not counted
+        transpositionTable.newSearch();
+        assertEquals(0, transpositionTable.getHashfull());
+
+        transpositionTable.clear();
+        assertEquals(0L, transpositionTable.probe(1L));
+    }
+}